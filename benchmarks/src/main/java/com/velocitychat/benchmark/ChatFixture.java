@@ -0,0 +1,86 @@
+package com.velocitychat.benchmark;
+
+import com.velocitychat.chat.ChatChannel;
+import com.velocitychat.chat.ChatManager;
+import com.velocitychat.config.VelocityChatConfig;
+import com.velocitychat.storage.PlayerDataStore;
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.ProxyServer;
+import org.slf4j.helpers.NOPLogger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * A {@link ChatManager} wired to fake players, with rate limits, duplicate suppression, storage and the
+ * dispatch lanes turned off so each benchmark measures one code path on the calling thread.
+ */
+final class ChatFixture implements AutoCloseable {
+    private static final String CONFIG = String.join("\n",
+            "channels:",
+            "  default: NETWORK",
+            "dispatch:",
+            "  parallel-threshold: 0",
+            "rate-limits:",
+            "  enabled: false",
+            "duplicates:",
+            "  enabled: false",
+            "storage:",
+            "  enabled: false",
+            "");
+
+    final Path dataDirectory;
+    final VelocityChatConfig config;
+    final ProxyServer proxy;
+    final ChatManager chatManager;
+    final List<Player> players;
+
+    private ChatFixture(Path dataDirectory, VelocityChatConfig config, ProxyServer proxy, ChatManager chatManager,
+                        List<Player> players) {
+        this.dataDirectory = dataDirectory;
+        this.config = config;
+        this.proxy = proxy;
+        this.chatManager = chatManager;
+        this.players = players;
+    }
+
+    /**
+     * Creates {@code count} players named {@code Player00000...}, every one logged in on the network channel.
+     */
+    static ChatFixture create(int count) {
+        try {
+            Path dataDirectory = Files.createTempDirectory("velocitychat-bench");
+            Files.writeString(dataDirectory.resolve("config.yml"), CONFIG);
+            VelocityChatConfig config = new VelocityChatConfig(dataDirectory, NOPLogger.NOP_LOGGER);
+            config.reload();
+            List<Player> players = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                players.add(Fakes.player(String.format("Player%05d", i), false, "lobby"));
+            }
+            ProxyServer proxy = Fakes.proxy(players);
+            PlayerDataStore store = new PlayerDataStore(dataDirectory.resolve("players"), NOPLogger.NOP_LOGGER);
+            ChatManager chatManager = new ChatManager(proxy, config, store);
+            for (Player player : players) {
+                chatManager.initializePlayer(player, ChatChannel.NETWORK);
+            }
+            return new ChatFixture(dataDirectory, config, proxy, chatManager, players);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public void close() {
+        try (Stream<Path> files = Files.walk(dataDirectory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.velocitychat.benchmark;
+
+import com.velocitypowered.api.proxy.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One network-channel message from rendering to the last recipient, through the public send path that wraps
+ * {@code dispatchToChannel}. Every player listens to the channel; {@code ignorers} of them ignore the sender.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispatchBenchmark {
+    @Param({"100", "1000", "10000"})
+    public int players;
+
+    @Param({"0", "50"})
+    public int ignorers;
+
+    private ChatFixture fixture;
+    private Player[] senders;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        fixture = ChatFixture.create(players);
+        senders = new Player[Math.min(16, players)];
+        for (int i = 0; i < senders.length; i++) {
+            senders[i] = fixture.players.get(i);
+        }
+        for (int i = 0; i < Math.min(ignorers, players); i++) {
+            Player owner = fixture.players.get(players - 1 - i);
+            for (Player sender : senders) {
+                fixture.chatManager.toggleIgnore(owner, sender);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public long networkMessage() {
+        Player sender = senders[next];
+        next = (next + 1) % senders.length;
+        fixture.chatManager.sendNetworkMessage(sender, "has anyone seen the new spawn build yet?");
+        return Fakes.DELIVERED.sum();
+    }
+}
@@ -0,0 +1,221 @@
+package com.velocitychat.benchmark;
+
+import com.velocitypowered.api.command.Command;
+import com.velocitypowered.api.command.CommandManager;
+import com.velocitypowered.api.command.CommandMeta;
+import com.velocitypowered.api.command.CommandSource;
+import com.velocitypowered.api.command.SimpleCommand;
+import com.velocitypowered.api.permission.Tristate;
+import com.velocitypowered.api.proxy.ConsoleCommandSource;
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.ProxyServer;
+import com.velocitypowered.api.proxy.ServerConnection;
+import com.velocitypowered.api.proxy.server.ServerInfo;
+import com.velocitypowered.api.scheduler.Scheduler;
+import net.kyori.adventure.text.Component;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Minimal stand-ins for the Velocity objects the plugin touches. Only the handful of methods VelocityChat calls
+ * are answered; everything else returns an empty default (or the fake itself, for fluent builders), so the fakes
+ * stay tiny as the API grows.
+ */
+final class Fakes {
+    private static final String STAFF_PERMISSION = "velocitychat.staff";
+
+    private Fakes() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Counts messages delivered to fake audiences, so benchmarks can sink it and the work is not optimized away.
+     */
+    static final LongAdder DELIVERED = new LongAdder();
+
+    static Player player(String name, boolean staff, String server) {
+        return player(name, staff, server, message -> DELIVERED.increment());
+    }
+
+    /**
+     * A player on {@code server} whose incoming chat is handed to {@code inbox}, on whichever thread delivers it.
+     */
+    static Player player(String name, boolean staff, String server, Consumer<Component> inbox) {
+        UUID id = UUID.nameUUIDFromBytes(("benchmark:" + name).getBytes(StandardCharsets.UTF_8));
+        ServerConnection connection = server == null ? null : fake(ServerConnection.class, (method, args) ->
+                switch (method.getName()) {
+                    case "getServerInfo" -> new ServerInfo(server, InetSocketAddress.createUnresolved(server, 25565));
+                    default -> null;
+                });
+        return fake(Player.class, (method, args) -> switch (method.getName()) {
+            case "getUniqueId" -> id;
+            case "getUsername" -> name;
+            case "getCurrentServer" -> Optional.ofNullable(connection);
+            case "getEffectiveLocale" -> Locale.ENGLISH;
+            case "isActive" -> true;
+            case "hasPermission" -> staff || !STAFF_PERMISSION.equals(args[0]);
+            case "getPermissionValue" -> staff || !STAFF_PERMISSION.equals(args[0]) ? Tristate.TRUE : Tristate.FALSE;
+            case "sendMessage" -> {
+                for (Object arg : args) {
+                    if (arg instanceof Component component) {
+                        inbox.accept(component);
+                        break;
+                    }
+                }
+                yield null;
+            }
+            default -> null;
+        });
+    }
+
+    static ProxyServer proxy(List<Player> players) {
+        return proxy(players, new HashMap<>());
+    }
+
+    /**
+     * A proxy whose command manager records each registered alias into {@code commands}, and whose scheduler
+     * accepts tasks without ever running them.
+     */
+    static ProxyServer proxy(List<Player> players, Map<String, Command> commands) {
+        Map<UUID, Player> byId = new ConcurrentHashMap<>();
+        Map<String, Player> byName = new ConcurrentHashMap<>();
+        for (Player player : players) {
+            byId.put(player.getUniqueId(), player);
+            byName.put(player.getUsername().toLowerCase(Locale.ROOT), player);
+        }
+        Collection<Player> all = List.copyOf(players);
+        ConsoleCommandSource console = fake(ConsoleCommandSource.class, (method, args) ->
+                method.getName().equals("hasPermission") ? Boolean.TRUE : null);
+        return fake(ProxyServer.class, (method, args) -> switch (method.getName()) {
+            case "getAllPlayers" -> all;
+            case "getPlayerCount" -> all.size();
+            case "getPlayer" -> args[0] instanceof UUID id
+                    ? Optional.ofNullable(byId.get(id))
+                    : Optional.ofNullable(byName.get(((String) args[0]).toLowerCase(Locale.ROOT)));
+            case "getConsoleCommandSource" -> console;
+            case "getCommandManager" -> commandManager(commands);
+            case "getScheduler" -> fake(Scheduler.class, (schedulerMethod, schedulerArgs) ->
+                    schedulerMethod.getName().equals("buildTask")
+                            ? fake(Scheduler.TaskBuilder.class, (taskMethod, taskArgs) -> null)
+                            : null);
+            default -> null;
+        });
+    }
+
+    private static CommandManager commandManager(Map<String, Command> commands) {
+        return fake(CommandManager.class, (method, args) -> switch (method.getName()) {
+            case "metaBuilder" -> {
+                List<String> aliases = new ArrayList<>(List.of((String) args[0]));
+                CommandMeta meta = fake(CommandMeta.class, (metaMethod, metaArgs) ->
+                        metaMethod.getName().equals("getAliases") ? List.copyOf(aliases) : null);
+                yield fake(CommandMeta.Builder.class, (builderMethod, builderArgs) -> switch (builderMethod.getName()) {
+                    case "aliases" -> {
+                        aliases.addAll(List.of((String[]) builderArgs[0]));
+                        yield null;
+                    }
+                    case "build" -> meta;
+                    default -> null;
+                });
+            }
+            case "register" -> {
+                if (args.length == 2 && args[0] instanceof CommandMeta meta) {
+                    for (String alias : meta.getAliases()) {
+                        commands.put(alias, (Command) args[1]);
+                    }
+                }
+                yield null;
+            }
+            default -> null;
+        });
+    }
+
+    static SimpleCommand.Invocation invocation(CommandSource source, String... arguments) {
+        return new SimpleCommand.Invocation() {
+            @Override
+            public String alias() {
+                return "benchmark";
+            }
+
+            @Override
+            public CommandSource source() {
+                return source;
+            }
+
+            @Override
+            public String[] arguments() {
+                return arguments;
+            }
+        };
+    }
+
+    private static <T> T fake(Class<T> type, Answer answer) {
+        InvocationHandler handler = (self, method, args) -> {
+            switch (method.getName()) {
+                case "equals":
+                    return self == args[0];
+                case "hashCode":
+                    return System.identityHashCode(self);
+                case "toString":
+                    return "Fake" + type.getSimpleName();
+                default:
+                    Object result = answer.answer(method, args);
+                    if (result != null) {
+                        return result;
+                    }
+                    return method.getReturnType().isInstance(self) ? self : defaultValue(method.getReturnType());
+            }
+        };
+        return type.cast(Proxy.newProxyInstance(Fakes.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == Optional.class) {
+            return Optional.empty();
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == double.class) {
+            return 0.0D;
+        }
+        if (type == float.class) {
+            return 0.0F;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        return null;
+    }
+
+    @FunctionalInterface
+    private interface Answer {
+        Object answer(Method method, Object[] args);
+    }
+}
@@ -0,0 +1,55 @@
+package com.velocitychat.benchmark;
+
+import com.velocitychat.util.ChatTemplate;
+import net.kyori.adventure.text.Component;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Template rendering with the shipped default formats: compiling the template on every call, as the plugin used
+ * to, against rendering a template compiled once up front.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormatBenchmark {
+    private static final String CHANNEL_FORMAT = "&b[Network] &7[{server}] &f{player}&7: &r{message}";
+    private static final String PRIVATE_FORMAT = "&d[From {sender}] {message}";
+    private static final String MESSAGE = "anyone up for a round of bedwars on lobby-2? bring &cred&r wool";
+
+    private ChatTemplate compiledChannel;
+
+    @Setup
+    public void setUp() {
+        compiledChannel = ChatTemplate.compile(CHANNEL_FORMAT, "player", "message", "server");
+    }
+
+    @Benchmark
+    public Component formatChannel() {
+        return ChatTemplate.compile(CHANNEL_FORMAT, "player", "message", "server")
+                .render("Player00042", MESSAGE, "lobby-2");
+    }
+
+    @Benchmark
+    public Component formatPrivate() {
+        return ChatTemplate.compile(PRIVATE_FORMAT, "sender", "message").render("Player00042", MESSAGE);
+    }
+
+    @Benchmark
+    public Component renderCompiledChannel() {
+        return compiledChannel.render("Player00042", MESSAGE, "lobby-2");
+    }
+}
@@ -0,0 +1,73 @@
+package com.velocitychat.benchmark;
+
+import com.velocitypowered.api.proxy.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code isIgnoring} against one player's ignore list of {@code listSize} entries, for hits and misses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IgnoreBenchmark {
+    @Param({"10", "1000", "100000"})
+    public int listSize;
+
+    private ChatFixture fixture;
+    private UUID owner;
+    private UUID[] ignored;
+    private UUID[] strangers;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        fixture = ChatFixture.create(1);
+        Player player = fixture.players.get(0);
+        owner = player.getUniqueId();
+        ignored = new UUID[listSize];
+        for (int i = 0; i < listSize; i++) {
+            ignored[i] = UUID.randomUUID();
+            fixture.chatManager.toggleIgnore(player, ignored[i], "Ignored" + i);
+        }
+        strangers = new UUID[1024];
+        for (int i = 0; i < strangers.length; i++) {
+            strangers[i] = UUID.randomUUID();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public boolean hit() {
+        UUID target = ignored[next];
+        next = (next + 1) % ignored.length;
+        return fixture.chatManager.isIgnoring(owner, target);
+    }
+
+    @Benchmark
+    public boolean miss() {
+        UUID target = strangers[next & (strangers.length - 1)];
+        next++;
+        return fixture.chatManager.isIgnoring(owner, target);
+    }
+}
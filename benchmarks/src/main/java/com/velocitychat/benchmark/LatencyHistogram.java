@@ -0,0 +1,80 @@
+package com.velocitychat.benchmark;
+
+/**
+ * Log-linear histogram of nanosecond latencies: 16 sub-buckets per power of two, so any reported percentile is
+ * within about 6% of the true value. Fixed size, so recording never allocates.
+ */
+final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private final long[] counts = new long[64 * SUB_BUCKETS];
+    private long total;
+    private long max;
+
+    synchronized void record(long nanos) {
+        long value = Math.max(0L, nanos);
+        counts[bucket(value)]++;
+        total++;
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    synchronized void addTo(LatencyHistogram target) {
+        synchronized (target) {
+            for (int i = 0; i < counts.length; i++) {
+                target.counts[i] += counts[i];
+            }
+            target.total += total;
+            target.max = Math.max(target.max, max);
+        }
+    }
+
+    synchronized long count() {
+        return total;
+    }
+
+    synchronized long max() {
+        return max;
+    }
+
+    /**
+     * Upper bound of the bucket holding the {@code quantile} (0..1) value, or {@code 0} when empty.
+     */
+    synchronized long percentile(double quantile) {
+        if (total == 0) {
+            return 0L;
+        }
+        long rank = Math.max(1L, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(max, lowerBound(i + 1) - 1);
+            }
+        }
+        return max;
+    }
+
+    private static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) ((value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    private static long lowerBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long sub = bucket % SUB_BUCKETS;
+        if (exponent >= 63) {
+            return Long.MAX_VALUE;
+        }
+        return (SUB_BUCKETS + sub) << (exponent - SUB_BUCKET_BITS);
+    }
+}
@@ -0,0 +1,440 @@
+package com.velocitychat.benchmark;
+
+import com.velocitychat.VelocityChatPlugin;
+import com.velocitypowered.api.command.Command;
+import com.velocitypowered.api.command.SimpleCommand;
+import com.velocitypowered.api.event.connection.PostLoginEvent;
+import com.velocitypowered.api.event.player.PlayerChatEvent;
+import com.velocitypowered.api.event.proxy.ProxyInitializeEvent;
+import com.velocitypowered.api.event.proxy.ProxyShutdownEvent;
+import com.velocitypowered.api.proxy.Player;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import org.slf4j.helpers.NOPLogger;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Headless load test: boots {@link VelocityChatPlugin} on a fake in-memory proxy, logs in synthetic players and
+ * drives chat, {@code /msg}, {@code /r} and channel switches at a fixed target rate.
+ *
+ * <p>The driver is open-loop: every event has a scheduled time and is fired late rather than skipped when the
+ * plugin falls behind, and latency is measured from that scheduled time to each recipient's delivery, so
+ * backlog shows up in the percentiles instead of silently lowering the rate. The scheduled time travels in the
+ * message text and is read back by the fake players.</p>
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.velocitychat.benchmark.LoadSimulator \
+ *     --players 5000 --rate 2000 --duration 60 --mix chat=80,msg=10,reply=5,switch=5
+ * </pre>
+ */
+public final class LoadSimulator {
+    private static final char MARK = '~';
+    private static final String[] CHANNELS = {"server", "network", "staff"};
+    private static final String[] ACTIONS = {"chat", "msg", "reply", "switch"};
+    private static final String[] WORDS = {"anyone", "up", "for", "bedwars", "lobby", "gg", "trade", "diamonds",
+            "where", "is", "spawn", "party", "join", "event", "tonight", "lag", "nice", "build", "help", "shop"};
+    /** Rate limits are off so the plugin is measured at the offered load, not at the limiter's ceiling. */
+    private static final String DEFAULT_CONFIG = String.join("\n",
+            "channels:",
+            "  default: SERVER",
+            "rate-limits:",
+            "  enabled: false",
+            "");
+
+    private final Settings settings;
+    private final List<LatencyHistogram> histograms = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<Inbox> inboxes = ThreadLocal.withInitial(this::newInbox);
+    private final LongAdder deliveries = new LongAdder();
+    private final LongAdder notices = new LongAdder();
+    private final long[] issued = new long[ACTIONS.length];
+    private volatile long measureFrom = Long.MAX_VALUE;
+    private volatile long peakHeap;
+
+    private LoadSimulator(Settings settings) {
+        this.settings = settings;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Settings settings;
+        try {
+            settings = Settings.parse(args);
+        } catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            System.err.println(Settings.USAGE);
+            System.exit(2);
+            return;
+        }
+        new LoadSimulator(settings).run();
+    }
+
+    private void run() throws Exception {
+        Path dataDirectory = Files.createTempDirectory("velocitychat-sim");
+        if (settings.config != null) {
+            Files.copy(settings.config, dataDirectory.resolve("config.yml"));
+        } else {
+            Files.writeString(dataDirectory.resolve("config.yml"), DEFAULT_CONFIG);
+        }
+
+        Random random = new Random(settings.seed);
+        List<Player> players = new ArrayList<>(settings.players);
+        boolean[] staff = new boolean[settings.players];
+        for (int i = 0; i < settings.players; i++) {
+            staff[i] = random.nextDouble() < settings.staffRatio;
+            players.add(Fakes.player(String.format("Sim%06d", i), staff[i], "server-" + (i % 8),
+                    this::deliver));
+        }
+        Map<String, Command> commands = new HashMap<>();
+        VelocityChatPlugin plugin = new VelocityChatPlugin(Fakes.proxy(players, commands), NOPLogger.NOP_LOGGER,
+                dataDirectory);
+        plugin.onProxyInitialization(new ProxyInitializeEvent());
+        SimpleCommand chat = (SimpleCommand) commands.get("chat");
+        SimpleCommand message = (SimpleCommand) commands.get("msg");
+        SimpleCommand reply = (SimpleCommand) commands.get("r");
+
+        System.out.printf(Locale.ROOT, "Logging in %d players (%.1f%% staff, ignore density %.4f)...%n",
+                settings.players, settings.staffRatio * 100.0, settings.ignoreDensity);
+        for (int i = 0; i < players.size(); i++) {
+            Player player = players.get(i);
+            plugin.onPostLogin(new PostLoginEvent(player));
+            String channel = CHANNELS[pickIndex(settings.channelMix, random.nextDouble())];
+            if (channel.equals("staff") && !staff[i]) {
+                channel = "network";
+            }
+            if (!channel.equals("server")) {
+                chat.execute(Fakes.invocation(player, channel));
+            }
+        }
+        int ignoresEach = (int) Math.round(settings.ignoreDensity * (settings.players - 1));
+        for (Player owner : players) {
+            for (int i = 0; i < ignoresEach; i++) {
+                Player target = players.get(random.nextInt(players.size()));
+                if (target != owner) {
+                    chat.execute(Fakes.invocation(owner, "ignore", target.getUsername()));
+                }
+            }
+        }
+
+        Thread sampler = startHeapSampler();
+        long start = System.nanoTime() + 100_000_000L;
+        long warmupNanos = settings.warmupSeconds * 1_000_000_000L;
+        long end = start + warmupNanos + settings.durationSeconds * 1_000_000_000L;
+        measureFrom = start + warmupNanos;
+        System.out.printf(Locale.ROOT, "Driving %d events/s on %d threads for %ds after %ds warmup...%n",
+                settings.rate, settings.threads, settings.durationSeconds, settings.warmupSeconds);
+
+        List<Thread> drivers = new ArrayList<>();
+        long[][] perThread = new long[settings.threads][ACTIONS.length];
+        for (int t = 0; t < settings.threads; t++) {
+            int index = t;
+            Thread driver = new Thread(() -> drive(index, start, end, players, staff, chat, message, reply,
+                    plugin, perThread[index]), "VelocityChat Sim Driver #" + t);
+            drivers.add(driver);
+            driver.start();
+        }
+        for (Thread driver : drivers) {
+            driver.join();
+        }
+        long driveEnd = System.nanoTime();
+        awaitQuiet();
+        sampler.interrupt();
+        for (long[] counts : perThread) {
+            for (int i = 0; i < counts.length; i++) {
+                issued[i] += counts[i];
+            }
+        }
+        report(Math.max(1L, Math.min(driveEnd, end) - measureFrom));
+
+        plugin.onProxyShutdown(new ProxyShutdownEvent());
+        deleteRecursively(dataDirectory);
+    }
+
+    private void drive(int index, long start, long end, List<Player> players, boolean[] staff, SimpleCommand chat,
+                       SimpleCommand message, SimpleCommand reply, VelocityChatPlugin plugin, long[] counts) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long interval = Math.max(1L, settings.threads * 1_000_000_000L / settings.rate);
+        long scheduled = start + index * (interval / settings.threads);
+        StringBuilder text = new StringBuilder(96);
+        while (scheduled < end) {
+            long now = System.nanoTime();
+            if (now < scheduled) {
+                LockSupport.parkNanos(scheduled - now);
+                continue;
+            }
+            int playerIndex = random.nextInt(players.size());
+            Player player = players.get(playerIndex);
+            int action = pickIndex(settings.actionMix, random);
+            switch (ACTIONS[action]) {
+                case "chat" -> plugin.onPlayerChat(new PlayerChatEvent(player, text(text, scheduled, random)));
+                case "msg" -> {
+                    Player target = players.get(random.nextInt(players.size()));
+                    message.execute(Fakes.invocation(player, target.getUsername(), text(text, scheduled, random)));
+                }
+                case "reply" -> reply.execute(Fakes.invocation(player, text(text, scheduled, random)));
+                default -> {
+                    String channel = CHANNELS[pickIndex(settings.channelMix, random)];
+                    if (channel.equals("staff") && !staff[playerIndex]) {
+                        channel = "network";
+                    }
+                    chat.execute(Fakes.invocation(player, channel));
+                }
+            }
+            if (scheduled >= measureFrom) {
+                counts[action]++;
+            }
+            scheduled += interval;
+        }
+    }
+
+    private static String text(StringBuilder text, long scheduled, ThreadLocalRandom random) {
+        text.setLength(0);
+        text.append(MARK).append(scheduled).append(MARK);
+        int words = 3 + random.nextInt(8);
+        for (int i = 0; i < words; i++) {
+            text.append(' ').append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+
+    /**
+     * Called by every fake player for every message, on the delivering thread.
+     */
+    private void deliver(Component component) {
+        long now = System.nanoTime();
+        Inbox inbox = inboxes.get();
+        if (component != inbox.last) {
+            inbox.last = component;
+            inbox.scheduled = scheduledTime(PlainTextComponentSerializer.plainText().serialize(component));
+        }
+        if (inbox.scheduled < 0) {
+            notices.increment();
+            return;
+        }
+        if (inbox.scheduled >= measureFrom) {
+            deliveries.increment();
+            inbox.histogram.record(now - inbox.scheduled);
+        }
+    }
+
+    private static long scheduledTime(String text) {
+        int open = text.indexOf(MARK);
+        int close = open < 0 ? -1 : text.indexOf(MARK, open + 1);
+        if (close < 0) {
+            return -1L;
+        }
+        try {
+            return Long.parseLong(text, open + 1, close, 10);
+        } catch (NumberFormatException ex) {
+            return -1L;
+        }
+    }
+
+    private Inbox newInbox() {
+        Inbox inbox = new Inbox();
+        histograms.add(inbox.histogram);
+        return inbox;
+    }
+
+    /**
+     * Waits for the dispatch lanes to drain: done once no delivery has landed for half a second.
+     */
+    private void awaitQuiet() throws InterruptedException {
+        long last = -1L;
+        for (int i = 0; i < 120; i++) {
+            long current = deliveries.sum() + notices.sum();
+            if (current == last) {
+                return;
+            }
+            last = current;
+            Thread.sleep(500L);
+        }
+    }
+
+    private Thread startHeapSampler() {
+        Thread sampler = new Thread(() -> {
+            Runtime runtime = Runtime.getRuntime();
+            while (!Thread.currentThread().isInterrupted()) {
+                peakHeap = Math.max(peakHeap, runtime.totalMemory() - runtime.freeMemory());
+                try {
+                    Thread.sleep(100L);
+                } catch (InterruptedException ex) {
+                    return;
+                }
+            }
+        }, "VelocityChat Sim Heap");
+        sampler.setDaemon(true);
+        sampler.start();
+        return sampler;
+    }
+
+    private void report(long measuredNanos) {
+        LatencyHistogram latency = new LatencyHistogram();
+        histograms.forEach(histogram -> histogram.addTo(latency));
+        double seconds = measuredNanos / 1e9;
+        long events = 0;
+        StringBuilder mix = new StringBuilder();
+        for (int i = 0; i < ACTIONS.length; i++) {
+            events += issued[i];
+            mix.append(i == 0 ? "" : ", ").append(ACTIONS[i]).append(' ').append(issued[i]);
+        }
+        System.gc();
+        long retained = 0;
+        long poolPeak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                retained += pool.getUsage().getUsed();
+                poolPeak += pool.getPeakUsage().getUsed();
+            }
+        }
+
+        System.out.println();
+        System.out.printf(Locale.ROOT, "players      %d (target %d events/s, %d driver threads)%n",
+                settings.players, settings.rate, settings.threads);
+        System.out.printf(Locale.ROOT, "events       %d in %.1fs = %.1f/s (%s)%n", events, seconds, events / seconds,
+                mix);
+        System.out.printf(Locale.ROOT, "deliveries   %d = %.1f/s, plus %d notices%n", latency.count(),
+                latency.count() / seconds, notices.sum());
+        System.out.printf(Locale.ROOT, "latency      p50 %s  p99 %s  p999 %s  max %s%n",
+                millis(latency.percentile(0.50)), millis(latency.percentile(0.99)),
+                millis(latency.percentile(0.999)), millis(latency.max()));
+        System.out.printf(Locale.ROOT, "heap         peak %s (sampled %s), retained after GC %s%n",
+                megabytes(poolPeak), megabytes(peakHeap), megabytes(retained));
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3fms", nanos / 1e6);
+    }
+
+    private static String megabytes(long bytes) {
+        return String.format(Locale.ROOT, "%.1fMB", bytes / (1024.0 * 1024.0));
+    }
+
+    private static int pickIndex(double[] weights, ThreadLocalRandom random) {
+        return pickIndex(weights, random.nextDouble());
+    }
+
+    private static int pickIndex(double[] cumulative, double roll) {
+        for (int i = 0; i < cumulative.length; i++) {
+            if (roll < cumulative[i]) {
+                return i;
+            }
+        }
+        return cumulative.length - 1;
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private static final class Inbox {
+        private final LatencyHistogram histogram = new LatencyHistogram();
+        private Component last;
+        private long scheduled = -1L;
+    }
+
+    private static final class Settings {
+        private static final String USAGE = String.join("\n",
+                "Options (all optional):",
+                "  --players N             synthetic players (default 1000)",
+                "  --rate N                target events per second (default 1000)",
+                "  --duration S            measured seconds (default 30)",
+                "  --warmup S              unmeasured seconds first (default 5)",
+                "  --threads N             driver threads (default 2)",
+                "  --mix a=w,...           chat/msg/reply/switch weights (default chat=80,msg=10,reply=5,switch=5)",
+                "  --channels a=w,...      server/network/staff speak-channel weights (default server=40,network=55,staff=5)",
+                "  --staff-ratio F         share of players with the staff permission (default 0.02)",
+                "  --ignore-density F      share of other players each player ignores (default 0.001)",
+                "  --config FILE           config.yml to use instead of the built-in one (rate limits off)",
+                "  --seed N                random seed for the player population (default 1)");
+
+        private int players = 1000;
+        private int rate = 1000;
+        private long durationSeconds = 30;
+        private long warmupSeconds = 5;
+        private int threads = 2;
+        private double[] actionMix = cumulative(ACTIONS, "chat=80,msg=10,reply=5,switch=5");
+        private double[] channelMix = cumulative(CHANNELS, "server=40,network=55,staff=5");
+        private double staffRatio = 0.02;
+        private double ignoreDensity = 0.001;
+        private Path config;
+        private long seed = 1L;
+
+        static Settings parse(String[] args) {
+            Settings settings = new Settings();
+            for (int i = 0; i < args.length; i++) {
+                String option = args[i];
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + option);
+                }
+                String value = args[++i];
+                try {
+                    switch (option) {
+                        case "--players" -> settings.players = Math.max(2, Integer.parseInt(value));
+                        case "--rate" -> settings.rate = Math.max(1, Integer.parseInt(value));
+                        case "--duration" -> settings.durationSeconds = Math.max(1L, Long.parseLong(value));
+                        case "--warmup" -> settings.warmupSeconds = Math.max(0L, Long.parseLong(value));
+                        case "--threads" -> settings.threads = Math.max(1, Integer.parseInt(value));
+                        case "--mix" -> settings.actionMix = cumulative(ACTIONS, value);
+                        case "--channels" -> settings.channelMix = cumulative(CHANNELS, value);
+                        case "--staff-ratio" -> settings.staffRatio = Double.parseDouble(value);
+                        case "--ignore-density" -> settings.ignoreDensity = Double.parseDouble(value);
+                        case "--config" -> settings.config = Paths.get(value);
+                        case "--seed" -> settings.seed = Long.parseLong(value);
+                        default -> throw new IllegalArgumentException("Unknown option " + option);
+                    }
+                } catch (NumberFormatException ex) {
+                    throw new IllegalArgumentException("Invalid value for " + option + ": " + value);
+                }
+            }
+            return settings;
+        }
+
+        /**
+         * Parses {@code name=weight,...} into cumulative probabilities ordered like {@code names}.
+         */
+        private static double[] cumulative(String[] names, String spec) {
+            Map<String, Double> weights = new LinkedHashMap<>();
+            for (String part : spec.split(",")) {
+                String[] pair = part.split("=", 2);
+                String name = pair[0].trim().toLowerCase(Locale.ROOT);
+                if (pair.length != 2 || !List.of(names).contains(name)) {
+                    throw new IllegalArgumentException("Invalid weight '" + part + "', expected one of "
+                            + String.join("/", names));
+                }
+                weights.put(name, Math.max(0.0, Double.parseDouble(pair[1].trim())));
+            }
+            double total = weights.values().stream().mapToDouble(Double::doubleValue).sum();
+            if (total <= 0.0) {
+                throw new IllegalArgumentException("Weights must not all be zero: " + spec);
+            }
+            double[] cumulative = new double[names.length];
+            double running = 0.0;
+            for (int i = 0; i < names.length; i++) {
+                running += weights.getOrDefault(names[i], 0.0) / total;
+                cumulative[i] = running;
+            }
+            return cumulative;
+        }
+    }
+}
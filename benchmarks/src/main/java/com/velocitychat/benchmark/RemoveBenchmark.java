@@ -0,0 +1,73 @@
+package com.velocitychat.benchmark;
+
+import com.velocitychat.chat.ChatChannel;
+import com.velocitypowered.api.proxy.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Disconnect cleanup while every online player has a recent conversation partner, so the conversation map is
+ * as full as it gets. The removed player is logged back in and re-paired between invocations, outside the
+ * measured time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RemoveBenchmark {
+    @Param({"100", "1000", "10000"})
+    public int players;
+
+    private ChatFixture fixture;
+    private List<Player> online;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        fixture = ChatFixture.create(players);
+        online = fixture.players;
+        for (int i = 0; i < players; i++) {
+            pair(i);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void rejoin() {
+        next = (next + 1) % players;
+        fixture.chatManager.initializePlayer(online.get(next), ChatChannel.NETWORK);
+        pair(next);
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public void remove() {
+        fixture.chatManager.remove(online.get(next));
+    }
+
+    private void pair(int index) {
+        Player sender = online.get(index);
+        Player target = online.get((index + 1) % players);
+        fixture.chatManager.sendPrivateMessage(sender, target, "gg");
+        fixture.chatManager.sendPrivateMessage(target, sender, "gg wp");
+    }
+}
@@ -0,0 +1,81 @@
+package com.velocitychat.benchmark;
+
+import com.velocitychat.command.ChatCommand;
+import com.velocitychat.command.MessageCommand;
+import com.velocitypowered.api.command.SimpleCommand;
+import com.velocitypowered.api.proxy.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tab completion as a player types: subcommand names, and player names after {@code /msg} and
+ * {@code /chat ignore}, with a prefix narrow enough to match a handful of names.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SuggestBenchmark {
+    @Param({"100", "1000", "10000"})
+    public int players;
+
+    private ChatFixture fixture;
+    private ChatCommand chatCommand;
+    private MessageCommand messageCommand;
+    private SimpleCommand.Invocation subcommand;
+    private SimpleCommand.Invocation ignoreName;
+    private SimpleCommand.Invocation messageName;
+    private SimpleCommand.Invocation messageAll;
+
+    @Setup
+    public void setUp() {
+        fixture = ChatFixture.create(players);
+        chatCommand = new ChatCommand(this, fixture.proxy, fixture.chatManager, fixture.config);
+        messageCommand = new MessageCommand(this, fixture.proxy, fixture.chatManager, fixture.config);
+        Player source = fixture.players.get(0);
+        subcommand = Fakes.invocation(source, "li");
+        ignoreName = Fakes.invocation(source, "ignore", "player0004");
+        messageName = Fakes.invocation(source, "player0004");
+        messageAll = Fakes.invocation(source);
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public List<String> chatSubcommand() {
+        return chatCommand.suggest(subcommand);
+    }
+
+    @Benchmark
+    public List<String> chatIgnoreName() {
+        return chatCommand.suggest(ignoreName);
+    }
+
+    @Benchmark
+    public List<String> messageName() {
+        return messageCommand.suggest(messageName);
+    }
+
+    @Benchmark
+    public List<String> messageAllNames() {
+        return messageCommand.suggest(messageAll);
+    }
+}
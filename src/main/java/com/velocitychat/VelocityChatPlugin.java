@@ -6,14 +6,23 @@ import com.velocitychat.chat.ChatManager;
 import com.velocitychat.command.ChatCommand;
 import com.velocitychat.command.MessageCommand;
 import com.velocitychat.command.ReplyCommand;
+import com.velocitychat.config.ConfigWatcher;
+import com.velocitychat.config.Message;
 import com.velocitychat.config.VelocityChatConfig;
-import com.velocitychat.util.TextFormatter;
+import com.velocitychat.metrics.MetricsServer;
+import com.velocitychat.network.InProcessTransport;
+import com.velocitychat.network.MessageTransport;
+import com.velocitychat.network.ProxyNetwork;
+import com.velocitychat.network.TcpTransport;
+import com.velocitychat.storage.PlayerDataStore;
 import com.velocitypowered.api.command.CommandManager;
 import com.velocitypowered.api.event.Subscribe;
 import com.velocitypowered.api.event.connection.DisconnectEvent;
 import com.velocitypowered.api.event.connection.PostLoginEvent;
 import com.velocitypowered.api.event.player.PlayerChatEvent;
+import com.velocitypowered.api.event.player.ServerConnectedEvent;
 import com.velocitypowered.api.event.proxy.ProxyInitializeEvent;
+import com.velocitypowered.api.event.proxy.ProxyShutdownEvent;
 import com.velocitypowered.api.plugin.Plugin;
 import com.velocitypowered.api.plugin.annotation.DataDirectory;
 import com.velocitypowered.api.proxy.Player;
@@ -21,7 +30,12 @@ import com.velocitypowered.api.proxy.ProxyServer;
 import com.velocitypowered.api.proxy.crypto.IdentifiedKey;
 import org.slf4j.Logger;
 
+import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Plugin(
         id = "velocitychat",
@@ -30,37 +44,76 @@ import java.nio.file.Path;
         authors = { "elimcgehee" }
 )
 public final class VelocityChatPlugin {
-    private static final String STAFF_PERMISSION = "velocitychat.staff";
-
     private final ProxyServer proxy;
     private final Logger logger;
     private final VelocityChatConfig config;
+    private final PlayerDataStore store;
     private final ChatManager chatManager;
     private boolean secureChatWarningLogged;
+    private MetricsServer metricsServer;
+    private ConfigWatcher configWatcher;
 
     @Inject
     public VelocityChatPlugin(ProxyServer proxy, Logger logger, @DataDirectory Path dataDirectory) {
         this.proxy = proxy;
         this.logger = logger;
         this.config = new VelocityChatConfig(dataDirectory, logger);
-        this.chatManager = new ChatManager(proxy, config);
+        this.store = new PlayerDataStore(dataDirectory.resolve("players"), logger);
+        this.chatManager = new ChatManager(proxy, config, store);
     }
 
     @Subscribe
     public void onProxyInitialization(ProxyInitializeEvent event) {
         config.reload();
+        store.getNames().setCapacity(config.getNameCacheSize());
+        if (config.isStorageEnabled()) {
+            store.start(config.getStorageFlushIntervalMillis(), config.getStorageCompactThreshold());
+        }
+        chatManager.start();
+        startNetwork();
+        startMetrics();
+        if (chatManager.getParallelFanOutThreshold() > 0) {
+            logger.info("Parallel fan-out enabled for audiences of {}+ players ({} threads).",
+                    chatManager.getParallelFanOutThreshold(), chatManager.getParallelFanOutThreads());
+        }
         registerCommands();
+        startConfigWatcher();
+        long refreshSeconds = config.getPermissionRefreshSeconds();
+        if (refreshSeconds > 0) {
+            proxy.getScheduler().buildTask(this, chatManager::refreshStaff)
+                    .delay(refreshSeconds, TimeUnit.SECONDS)
+                    .repeat(refreshSeconds, TimeUnit.SECONDS)
+                    .schedule();
+        }
         logger.info("VelocityChat enabled.");
     }
 
     @Subscribe
-    public void onPostLogin(PostLoginEvent event) {
-        Player player = event.getPlayer();
-        ChatChannel channel = config.getDefaultChannel();
-        if (channel == ChatChannel.STAFF && !player.hasPermission(STAFF_PERMISSION)) {
-            channel = ChatChannel.SERVER;
+    public void onProxyShutdown(ProxyShutdownEvent event) {
+        if (configWatcher != null) {
+            configWatcher.stop();
+            configWatcher = null;
         }
-        chatManager.initializePlayer(player, channel);
+        if (metricsServer != null) {
+            metricsServer.stop();
+            metricsServer = null;
+        }
+        ProxyNetwork network = chatManager.getNetwork();
+        if (network != null) {
+            network.close();
+        }
+        chatManager.shutdown();
+        store.shutdown();
+    }
+
+    @Subscribe
+    public void onPostLogin(PostLoginEvent event) {
+        chatManager.initializePlayer(event.getPlayer(), config.getDefaultChannel());
+    }
+
+    @Subscribe
+    public void onServerConnected(ServerConnectedEvent event) {
+        chatManager.updateServer(event.getPlayer(), event.getServer().getServerInfo().getName());
     }
 
     @Subscribe
@@ -75,38 +128,100 @@ public final class VelocityChatPlugin {
         String plainMessage = event.getMessage();
         boolean canIntercept = canInterceptSignedChat(player);
 
-        if (channel == ChatChannel.STAFF) {
-            if (!player.hasPermission(STAFF_PERMISSION)) {
-                if (canIntercept) {
-                    suppressChat(event);
-                }
-                chatManager.setSpeakChannelExclusive(player, ChatChannel.SERVER);
-                player.sendMessage(TextFormatter.colorize(config.message("not-staff", "&cYou must have staff permissions to do that.")));
-                return;
-            }
-            if (!canIntercept) {
-                handleSecureChatRestriction(player);
-                return;
+        if (channel == ChatChannel.SERVER) {
+            return;
+        }
+        if (!chatManager.canUse(player, channel)) {
+            if (canIntercept) {
+                suppressChat(event);
             }
-            suppressChat(event);
-            chatManager.sendStaffMessage(player, plainMessage);
+            chatManager.setSpeakChannelExclusive(player, ChatChannel.SERVER);
+            player.sendMessage(config.message(player, Message.channelDenied(channel), channel.getDisplayName()));
+            return;
+        }
+        if (!canIntercept) {
+            handleSecureChatRestriction(player);
             return;
         }
+        suppressChat(event);
+        chatManager.sendChannelMessage(player, plainMessage, channel);
+    }
 
-        if (channel == ChatChannel.NETWORK) {
-            if (!canIntercept) {
-                handleSecureChatRestriction(player);
-                return;
+    private void startNetwork() {
+        if (!config.isNetworkEnabled()) {
+            return;
+        }
+        MessageTransport transport;
+        try {
+            if (config.getNetworkTransport().equals("in-process")) {
+                transport = new InProcessTransport("velocitychat");
+            } else {
+                List<InetSocketAddress> peers = new ArrayList<>();
+                for (String peer : config.getNetworkPeers()) {
+                    peers.add(TcpTransport.parseAddress(peer));
+                }
+                if (config.getNetworkSecret().isBlank()) {
+                    logger.warn("network.secret is not set; VelocityChat only accepts links from the addresses listed in network.peers.");
+                }
+                transport = new TcpTransport(TcpTransport.parseAddress(config.getNetworkBind()), peers,
+                        config.getNetworkBatchSize(), config.getNetworkFlushIntervalMillis(),
+                        config.getNetworkSecret(), logger);
             }
-            suppressChat(event);
-            chatManager.sendNetworkMessage(player, plainMessage);
+        } catch (IllegalArgumentException ex) {
+            logger.error("Invalid VelocityChat network address: {}", ex.getMessage());
+            return;
+        }
+
+        ProxyNetwork network = new ProxyNetwork(config.getProxyId(), transport);
+        // Attach first so private messages routed here as soon as the link is up find the network.
+        chatManager.attachNetwork(network);
+        try {
+            network.start(chatManager::receiveRemote, chatManager::localRoster);
+        } catch (IOException ex) {
+            logger.error("Failed to start VelocityChat network transport", ex);
+            chatManager.attachNetwork(null);
+            network.close();
+            return;
+        }
+        logger.info("VelocityChat network enabled as '{}' ({} peers).", config.getProxyId(), config.getNetworkPeers().size());
+    }
+
+    private void startMetrics() {
+        if (!config.isMetricsEnabled()) {
+            return;
+        }
+        MetricsServer server;
+        try {
+            server = new MetricsServer(chatManager, TcpTransport.parseAddress(config.getMetricsBind()));
+            server.start();
+        } catch (IOException | IllegalArgumentException ex) {
+            logger.error("Failed to start VelocityChat metrics endpoint on {}: {}", config.getMetricsBind(),
+                    ex.getMessage());
+            return;
+        }
+        metricsServer = server;
+        logger.info("VelocityChat metrics available at http://{}/metrics", config.getMetricsBind());
+    }
+
+    private void startConfigWatcher() {
+        if (!config.isWatchConfig()) {
+            return;
+        }
+        ConfigWatcher watcher = new ConfigWatcher(config, logger);
+        try {
+            watcher.start();
+        } catch (IOException ex) {
+            logger.error("Failed to watch config.yml for changes", ex);
+            return;
         }
+        configWatcher = watcher;
+        logger.info("Watching config.yml for changes.");
     }
 
     private void registerCommands() {
         CommandManager commandManager = proxy.getCommandManager();
-        ChatCommand chatCommand = new ChatCommand(proxy, chatManager, config);
-        MessageCommand messageCommand = new MessageCommand(proxy, chatManager, config);
+        ChatCommand chatCommand = new ChatCommand(this, proxy, chatManager, config);
+        MessageCommand messageCommand = new MessageCommand(this, proxy, chatManager, config);
         ReplyCommand replyCommand = new ReplyCommand(chatManager, config);
 
         commandManager.register(
@@ -154,10 +269,7 @@ public final class VelocityChatPlugin {
 
     private void handleSecureChatRestriction(Player player) {
         chatManager.setSpeakChannelExclusive(player, ChatChannel.SERVER);
-        player.sendMessage(TextFormatter.colorize(config.message(
-                "secure-chat-restricted",
-                "&cSecure chat is enabled on this server, so VelocityChat channels are unavailable. You have been switched back to server chat."
-        )));
+        player.sendMessage(config.message(player, Message.SECURE_CHAT_RESTRICTED));
         if (!secureChatWarningLogged) {
             secureChatWarningLogged = true;
             logger.warn("VelocityChat cannot intercept chat messages while secure chat is enforced "
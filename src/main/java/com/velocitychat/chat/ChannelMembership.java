@@ -0,0 +1,225 @@
+package com.velocitychat.chat;
+
+import com.velocitypowered.api.proxy.Player;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Predicate;
+
+/**
+ * Who listens to each channel and who is on each backend server, as bitsets over dense player slots.
+ *
+ * <p>Every online player holds a small integer slot for their session, and bit {@code s} of a channel's set means
+ * the player in slot {@code s} listens to it. Each backend server seen so far has a set of the same shape, updated
+ * as players move between servers. A listen toggle or server switch flips a bit or two; routing a message walks
+ * one {@code long} per 64 slots, masked by the servers in scope, and visits only the players left. Writes, which
+ * happen on logins, toggles and server switches, take a lock; reads take none and see the table as of the last
+ * write.</p>
+ */
+final class ChannelMembership {
+    private static final int INITIAL_SLOTS = 256;
+
+    private final Map<UUID, Integer> slots = new ConcurrentHashMap<>();
+    /** Freed slots, reused oldest first so a slot is not handed out again while a send may still be reading it. */
+    private final ArrayDeque<Integer> free = new ArrayDeque<>();
+    private final AtomicIntegerArray sizes = new AtomicIntegerArray(ChatChannel.MAX_CHANNELS);
+    /** Dense ids for backend server names, assigned the first time a player is seen on one and never reused. */
+    private final Map<String, Integer> serverIds = new ConcurrentHashMap<>();
+    private volatile Table table = new Table(INITIAL_SLOTS, 0);
+    private int nextSlot;
+
+    /**
+     * Gives {@code player} a slot, which starts with no channels.
+     */
+    synchronized void join(Player player) {
+        UUID id = player.getUniqueId();
+        if (slots.containsKey(id)) {
+            return;
+        }
+        Integer reused = free.poll();
+        int slot = reused != null ? reused : nextSlot++;
+        if (slot >= table.capacity) {
+            table = table.grow(Math.max(slot + 1, table.capacity * 2), table.servers.length);
+        }
+        table.players.set(slot, player);
+        slots.put(id, slot);
+    }
+
+    /**
+     * Takes {@code id} out of every channel and frees its slot.
+     */
+    synchronized void leave(UUID id) {
+        Integer slot = slots.remove(id);
+        if (slot == null) {
+            return;
+        }
+        Table current = table;
+        for (int ordinal = 0; ordinal < ChatChannel.count(); ordinal++) {
+            clear(current, ordinal, slot);
+        }
+        leaveServer(current, slot);
+        current.players.set(slot, null);
+        free.add(slot);
+    }
+
+    /**
+     * Adds or removes {@code id} from {@code channel}; does nothing for players without a slot.
+     */
+    synchronized void set(UUID id, ChatChannel channel, boolean member) {
+        Integer slot = slots.get(id);
+        if (slot == null) {
+            return;
+        }
+        Table current = table;
+        int ordinal = channel.ordinal();
+        if (member) {
+            long mask = 1L << slot;
+            long word = current.bits[ordinal].get(slot >>> 6);
+            if ((word & mask) == 0) {
+                current.bits[ordinal].set(slot >>> 6, word | mask);
+                sizes.incrementAndGet(ordinal);
+            }
+        } else {
+            clear(current, ordinal, slot);
+        }
+    }
+
+    /**
+     * Records that {@code id} is now on backend {@code server}; does nothing for players without a slot.
+     */
+    synchronized void moveTo(UUID id, String server) {
+        Integer slot = slots.get(id);
+        if (slot == null) {
+            return;
+        }
+        Integer serverId = serverIds.get(server);
+        if (serverId == null) {
+            serverId = table.servers.length;
+            table = table.grow(table.capacity, serverId + 1);
+            // Published after the table that has room for it, so readers never see an id past the end.
+            serverIds.put(server, serverId);
+        }
+        Table current = table;
+        leaveServer(current, slot);
+        current.servers[serverId].set(slot >>> 6, current.servers[serverId].get(slot >>> 6) | (1L << slot));
+        current.serverOf.set(slot, serverId + 1);
+    }
+
+    /**
+     * Ids of the servers seen so far whose names match {@code filter}, for {@link #collect}.
+     */
+    int[] servers(Predicate<String> filter) {
+        int[] ids = new int[serverIds.size()];
+        int count = 0;
+        for (Map.Entry<String, Integer> entry : serverIds.entrySet()) {
+            if (count < ids.length && filter.test(entry.getKey())) {
+                ids[count++] = entry.getValue();
+            }
+        }
+        return Arrays.copyOf(ids, count);
+    }
+
+    boolean contains(UUID id, ChatChannel channel) {
+        Integer slot = slots.get(id);
+        return slot != null && (table.bits[channel.ordinal()].get(slot >>> 6) & (1L << slot)) != 0;
+    }
+
+    int size(ChatChannel channel) {
+        return sizes.get(channel.ordinal());
+    }
+
+    /**
+     * Adds every member of {@code channel} not in {@code excluded} to {@code into}. With {@code scope} (ids from
+     * {@link #servers}), only members on those servers are added; without it, members anywhere.
+     */
+    void collect(ChatChannel channel, int[] scope, Set<UUID> excluded, List<Player> into) {
+        Table current = table;
+        AtomicLongArray bits = current.bits[channel.ordinal()];
+        for (int i = 0; i < bits.length(); i++) {
+            long members = bits.get(i);
+            if (scope != null && members != 0) {
+                long present = 0L;
+                for (int server : scope) {
+                    present |= current.servers[server].get(i);
+                }
+                members &= present;
+            }
+            for (long word = members; word != 0; word &= word - 1) {
+                Player player = current.players.get((i << 6) + Long.numberOfTrailingZeros(word));
+                if (player != null && (excluded == null || !excluded.contains(player.getUniqueId()))) {
+                    into.add(player);
+                }
+            }
+        }
+    }
+
+    private void clear(Table current, int ordinal, int slot) {
+        long mask = 1L << slot;
+        long word = current.bits[ordinal].get(slot >>> 6);
+        if ((word & mask) != 0) {
+            current.bits[ordinal].set(slot >>> 6, word & ~mask);
+            sizes.decrementAndGet(ordinal);
+        }
+    }
+
+    private void leaveServer(Table current, int slot) {
+        int previous = current.serverOf.getAndSet(slot, 0) - 1;
+        if (previous >= 0) {
+            AtomicLongArray bits = current.servers[previous];
+            bits.set(slot >>> 6, bits.get(slot >>> 6) & ~(1L << slot));
+        }
+    }
+
+    private static final class Table {
+        private final int capacity;
+        private final AtomicReferenceArray<Player> players;
+        private final AtomicLongArray[] bits = new AtomicLongArray[ChatChannel.MAX_CHANNELS];
+        private final AtomicLongArray[] servers;
+        /** Each slot's server id plus one, or {@code 0} while the player is between servers. */
+        private final AtomicIntegerArray serverOf;
+
+        private Table(int capacity, int serverCount) {
+            this.capacity = capacity;
+            this.players = new AtomicReferenceArray<>(capacity);
+            this.serverOf = new AtomicIntegerArray(capacity);
+            for (int i = 0; i < bits.length; i++) {
+                bits[i] = new AtomicLongArray(capacity >>> 6);
+            }
+            this.servers = new AtomicLongArray[serverCount];
+            for (int i = 0; i < serverCount; i++) {
+                servers[i] = new AtomicLongArray(capacity >>> 6);
+            }
+        }
+
+        /**
+         * A copy with room for {@code minimum} slots and {@code serverCount} servers. Only called with the
+         * membership lock held.
+         */
+        private Table grow(int minimum, int serverCount) {
+            Table grown = new Table((minimum + 63) & ~63, serverCount);
+            for (int slot = 0; slot < capacity; slot++) {
+                grown.players.set(slot, players.get(slot));
+                grown.serverOf.set(slot, serverOf.get(slot));
+            }
+            copy(bits, grown.bits);
+            copy(servers, grown.servers);
+            return grown;
+        }
+
+        private static void copy(AtomicLongArray[] from, AtomicLongArray[] to) {
+            for (int row = 0; row < from.length; row++) {
+                for (int i = 0; i < from[row].length(); i++) {
+                    to[row].set(i, from[row].get(i));
+                }
+            }
+        }
+    }
+}
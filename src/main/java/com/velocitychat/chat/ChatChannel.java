@@ -1,17 +1,144 @@
 package com.velocitychat.chat;
 
-public enum ChatChannel {
-    SERVER("Server"),
-    NETWORK("Network"),
-    STAFF("Staff");
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 
-    private final String displayName;
+/**
+ * A chat channel. SERVER, NETWORK and STAFF are built in; the rest are defined under {@code channels.custom} in
+ * config.yml and registered when the config is loaded.
+ *
+ * <p>Channels are never unregistered, so an ordinal stays valid for the life of the proxy and can index arrays and
+ * bitsets. A channel dropped from config.yml stays registered but is no longer configured, and is treated as
+ * closed. At most {@value #MAX_CHANNELS} channels exist, built-ins included, so per-channel state can be sized up
+ * front.</p>
+ */
+public final class ChatChannel {
+    public static final int MAX_CHANNELS = 56;
 
-    ChatChannel(String displayName) {
+    private static final Pattern ID = Pattern.compile("[a-z0-9_-]{1,32}");
+    /** {@code /chat} subcommands, which take precedence over channel ids and would leave such a channel unreachable. */
+    private static final Set<String> RESERVED = Set.of("listen", "ignore", "alert", "history", "limits", "stats",
+            "lag", "refreshperms");
+    private static final Map<String, ChatChannel> BY_NAME = new ConcurrentHashMap<>();
+    private static volatile ChatChannel[] values = new ChatChannel[0];
+
+    public static final ChatChannel SERVER = register("SERVER", "Server", true);
+    public static final ChatChannel NETWORK = register("NETWORK", "Network", true);
+    public static final ChatChannel STAFF = register("STAFF", "Staff", true);
+
+    private final String name;
+    private final int ordinal;
+    private final boolean builtIn;
+    private volatile String displayName;
+
+    private ChatChannel(String name, String displayName, int ordinal, boolean builtIn) {
+        this.name = name;
         this.displayName = displayName;
+        this.ordinal = ordinal;
+        this.builtIn = builtIn;
+    }
+
+    /**
+     * Registers a custom channel, or returns the one already registered under {@code id} with its display name
+     * updated.
+     *
+     * @throws IllegalArgumentException if {@code id} is not 1-32 lowercase letters, digits, {@code _} or {@code -},
+     *                                  names a built-in channel, or is a {@code /chat} subcommand
+     * @throws IllegalStateException    if {@value #MAX_CHANNELS} channels are already registered
+     */
+    public static ChatChannel define(String id, String displayName) {
+        if (!ID.matcher(id).matches()) {
+            throw new IllegalArgumentException("Invalid channel id '" + id + "'");
+        }
+        if (RESERVED.contains(id)) {
+            throw new IllegalArgumentException("'" + id + "' is reserved for /chat " + id);
+        }
+        ChatChannel existing = BY_NAME.get(key(id));
+        if (existing != null && existing.builtIn) {
+            throw new IllegalArgumentException("'" + id + "' is a built-in channel");
+        }
+        if (existing != null) {
+            existing.displayName = displayName;
+            return existing;
+        }
+        return register(id, displayName, false);
+    }
+
+    private static synchronized ChatChannel register(String name, String displayName, boolean builtIn) {
+        ChatChannel existing = BY_NAME.get(key(name));
+        if (existing != null) {
+            return existing;
+        }
+        ChatChannel[] current = values;
+        if (current.length >= MAX_CHANNELS) {
+            throw new IllegalStateException("No more than " + MAX_CHANNELS + " channels can be defined");
+        }
+        ChatChannel channel = new ChatChannel(name, displayName, current.length, builtIn);
+        ChatChannel[] next = new ChatChannel[current.length + 1];
+        System.arraycopy(current, 0, next, 0, current.length);
+        next[current.length] = channel;
+        BY_NAME.put(key(name), channel);
+        values = next;
+        return channel;
+    }
+
+    /**
+     * Every registered channel, in ordinal order.
+     */
+    public static ChatChannel[] values() {
+        return values.clone();
+    }
+
+    public static int count() {
+        return values.length;
+    }
+
+    static ChatChannel byOrdinal(int ordinal) {
+        return values[ordinal];
+    }
+
+    /**
+     * The channel registered under {@code name}, in any case.
+     *
+     * @throws IllegalArgumentException if there is none
+     */
+    public static ChatChannel valueOf(String name) {
+        ChatChannel channel = BY_NAME.get(key(name));
+        if (channel == null) {
+            throw new IllegalArgumentException("No channel named '" + name + "'");
+        }
+        return channel;
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Upper-case for built-in channels and the configured id for custom ones; this is what storage and the
+     * network protocol record.
+     */
+    public String name() {
+        return name;
+    }
+
+    public int ordinal() {
+        return ordinal;
+    }
+
+    public boolean isBuiltIn() {
+        return builtIn;
     }
 
     public String getDisplayName() {
         return displayName;
     }
+
+    @Override
+    public String toString() {
+        return name;
+    }
 }
@@ -0,0 +1,74 @@
+package com.velocitychat.chat;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs channel fan-out on dedicated worker lanes so chat events return as soon as a message is queued.
+ *
+ * <p>Each channel is pinned to one single-threaded lane with a bounded queue, so messages on a channel (and a
+ * sender's messages within it) are delivered in the order they were submitted. When a lane's queue is full the
+ * new message is rejected rather than blocking the caller.</p>
+ */
+final class ChatDispatcher {
+    private static final AtomicInteger THREAD_IDS = new AtomicInteger();
+
+    private final ThreadPoolExecutor[] lanes;
+
+    ChatDispatcher(int workers, int queueCapacity) {
+        int laneCount = Math.max(1, Math.min(workers, ChatChannel.count()));
+        this.lanes = new ThreadPoolExecutor[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "VelocityChat Dispatch #" + THREAD_IDS.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    new ThreadPoolExecutor.AbortPolicy());
+        }
+    }
+
+    /**
+     * Queues {@code task} on the lane owning {@code channel}.
+     *
+     * @return {@code false} if the lane's queue is full or the dispatcher is shut down
+     */
+    boolean submit(ChatChannel channel, Runnable task) {
+        try {
+            lanes[channel.ordinal() % lanes.length].execute(task);
+            return true;
+        } catch (RejectedExecutionException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Tasks waiting in all lanes, not counting the ones running.
+     */
+    int backlog() {
+        int waiting = 0;
+        for (ThreadPoolExecutor lane : lanes) {
+            waiting += lane.getQueue().size();
+        }
+        return waiting;
+    }
+
+    void shutdown() {
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+        for (ThreadPoolExecutor lane : lanes) {
+            try {
+                lane.awaitTermination(2, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
@@ -1,7 +1,14 @@
 package com.velocitychat.chat;
 
+import com.velocitychat.config.Message;
 import com.velocitychat.config.VelocityChatConfig;
-import com.velocitychat.util.TextFormatter;
+import com.velocitychat.network.Envelope;
+import com.velocitychat.network.PlayerDirectory;
+import com.velocitychat.network.ProxyNetwork;
+import com.velocitychat.storage.NameRegistry;
+import com.velocitychat.storage.PlayerDataStore;
+import com.velocitychat.storage.StoredPlayer;
+import com.velocitychat.util.ChatTemplate;
 import com.velocitypowered.api.command.CommandSource;
 import com.velocitypowered.api.proxy.Player;
 import com.velocitypowered.api.proxy.ProxyServer;
@@ -9,13 +16,20 @@ import com.velocitypowered.api.proxy.ServerConnection;
 import com.velocitypowered.api.proxy.server.ServerInfo;
 import net.kyori.adventure.text.Component;
 
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongUnaryOperator;
 import java.util.stream.Collectors;
 
 /**
@@ -26,38 +40,297 @@ public final class ChatManager {
 
     private final ProxyServer proxy;
     private final VelocityChatConfig config;
+    private final PlayerDataStore store;
+    /** Canonical name Strings, shared by every ignore list that mentions a player. */
+    private final NameRegistry knownNames;
 
-    private final Map<UUID, ChatPreferences> preferences = new ConcurrentHashMap<>();
+    /** Packed {@link PreferenceBits} words, changed only by compare-and-set in {@link #updatePreferences}. */
+    private final Map<UUID, Long> preferences = new ConcurrentHashMap<>();
     private final Map<UUID, Map<UUID, String>> ignoreLists = new ConcurrentHashMap<>();
+    /** Reverse of {@link #ignoreLists}: ignored player to the players ignoring them. */
+    private final Map<UUID, Set<UUID>> ignoredBy = new ConcurrentHashMap<>();
+    /** Players whose stored record is still loading, with what they have changed since login. */
+    private final Map<UUID, PendingRestore> restoring = new ConcurrentHashMap<>();
+    /**
+     * Saved listening channels a player cannot use in this run because the channel is not configured, written back
+     * with their preferences so they rejoin if it returns.
+     */
+    private final Map<UUID, Set<String>> dormantChannels = new ConcurrentHashMap<>();
     private final Map<UUID, ConversationContext> lastConversation = new ConcurrentHashMap<>();
+    /** Reverse of {@link #lastConversation}: partner to the players whose /r target they are. */
+    private final Map<UUID, Set<UUID>> conversationOwners = new ConcurrentHashMap<>();
+    /** Session cache of {@value #STAFF_PERMISSION}, filled at login and refreshed periodically or on demand. */
+    private final Map<UUID, Boolean> staffCache = new ConcurrentHashMap<>();
+    /**
+     * Live listeners per broadcast channel, kept in sync with {@link #preferences} so dispatch only
+     * visits players who actually receive the channel. SERVER chat is vanilla and never has members.
+     */
+    private final ChannelMembership members = new ChannelMembership();
+    private final RateLimiter rateLimiter = new RateLimiter();
+    private final DuplicateFilter duplicateFilter = new DuplicateFilter();
+    private final ChatMetrics metrics = new ChatMetrics();
+    private final NameIndex names = new NameIndex();
+    private volatile ChatDispatcher dispatcher;
+    private volatile Outbound outbound = Outbound.direct();
+    private volatile FanOut fanOut = FanOut.serial();
+    /** Per channel, one history per server group for group-scoped channels and a single one under "" otherwise. */
+    private final Map<ChatChannel, Map<String, MessageHistory>> histories = new ConcurrentHashMap<>();
+    /** Session cache of each player's backend server name, kept current from server switches. */
+    private final Map<UUID, String> servers = new ConcurrentHashMap<>();
+    /** Messages kept per channel, or {@code 0} until {@link #start()}. */
+    private volatile int historyCapacity;
+    private volatile ProxyNetwork network;
 
-    public ChatManager(ProxyServer proxy, VelocityChatConfig config) {
+    public ChatManager(ProxyServer proxy, VelocityChatConfig config, PlayerDataStore store) {
         this.proxy = proxy;
         this.config = config;
+        this.store = store;
+        this.knownNames = store.getNames();
+        // Names on an online player's ignore list stay resolvable, so the ignore can always be undone by name.
+        knownNames.setRetained(ignoredBy::containsKey);
     }
 
+    /**
+     * Starts the dispatch workers; until then (and after {@link #shutdown()}) channel messages are sent inline.
+     */
+    public void start() {
+        historyCapacity = config.getHistoryCapacity();
+        if (config.isSlowRecipientsEnabled()) {
+            outbound = new Outbound(config.getSlowSendMicros(), config.getSlowPingThresholdMillis(),
+                    config.getRecipientQueueCapacity(), config.getRecipientDrainPerSecond());
+        }
+        fanOut = new FanOut(config.getParallelThreshold(), config.getParallelShardSize(), config.getParallelThreads(),
+                outbound);
+        dispatcher = new ChatDispatcher(config.getDispatchWorkers(), config.getDispatchQueueCapacity());
+    }
+
+    public void shutdown() {
+        ChatDispatcher current = dispatcher;
+        dispatcher = null;
+        if (current != null) {
+            current.shutdown();
+        }
+        FanOut parallel = fanOut;
+        fanOut = FanOut.serial();
+        parallel.shutdown();
+        Outbound tracked = outbound;
+        outbound = Outbound.direct();
+        tracked.shutdown();
+    }
+
+    /**
+     * Links this proxy to sibling proxies: local channel messages and alerts are published to {@code network}, and
+     * envelopes it receives should be passed to {@link #receiveRemote(Envelope)}.
+     */
+    public void attachNetwork(ProxyNetwork network) {
+        this.network = network;
+    }
+
+    public ProxyNetwork getNetwork() {
+        return network;
+    }
+
+    /**
+     * This proxy's players as directory entries, sent to each peer when it connects.
+     */
+    public List<PlayerDirectory.Entry> localRoster() {
+        List<PlayerDirectory.Entry> roster = new ArrayList<>();
+        for (Player player : proxy.getAllPlayers()) {
+            roster.add(new PlayerDirectory.Entry(player.getUniqueId(), player.getUsername(), config.getProxyId(),
+                    isStaff(player)));
+        }
+        return roster;
+    }
+
+    /**
+     * Looks up a player on another proxy in the replicated directory, without any network round trip.
+     */
+    public Optional<PlayerDirectory.Entry> findRemotePlayer(String name) {
+        ProxyNetwork linked = network;
+        return linked == null ? Optional.empty() : linked.getDirectory().find(name);
+    }
+
+    /**
+     * Names of online players, on this proxy first and then on other proxies, that start with {@code prefix}
+     * (any case). At most the configured suggestion limit are returned.
+     */
+    public List<String> suggestPlayerNames(String prefix) {
+        int limit = config.getSuggestionLimit();
+        String key = prefix.toLowerCase(Locale.ROOT);
+        List<String> matches = names.startingWith(key, limit);
+        ProxyNetwork linked = network;
+        if (linked != null && matches.size() < limit) {
+            for (PlayerDirectory.Entry entry : linked.getDirectory().startingWith(key, limit - matches.size())) {
+                if (!names.contains(entry.getName())) {
+                    matches.add(entry.getName());
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Delivers a channel message or alert that originated on another proxy to local players. Delivery runs on the
+     * channel's dispatch lane, keeping it ordered with local traffic and off the transport thread. Private
+     * messages and their delivery results are handled on the transport thread, as they touch at most one player.
+     */
+    public void receiveRemote(Envelope envelope) {
+        switch (envelope.getType()) {
+            case CHANNEL -> {
+                ChatChannel channel = parseChannel(envelope.getChannel());
+                if (channel == null || channel == ChatChannel.SERVER) {
+                    return;
+                }
+                submit(channel, () -> {
+                    ChatTemplate template = config.getChannelTemplate(channel);
+                    if (template != null) {
+                        broadcast(channel, envelope.getServer(), envelope.getSender(), null,
+                                template.render(envelope.getSenderName(), envelope.getMessage(), envelope.getServer()));
+                    }
+                });
+            }
+            case ALERT -> submit(ChatChannel.NETWORK, () -> deliverAlert(envelope.getMessage(), envelope.getSenderName()));
+            case PRIVATE -> receivePrivate(envelope);
+            case PRIVATE_DELIVERED, PRIVATE_IGNORED, PRIVATE_OFFLINE -> completePrivate(envelope);
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * Audience size at which fan-out switches to parallel shards, or {@code 0} when parallel fan-out is off.
+     */
+    public int getParallelFanOutThreshold() {
+        return fanOut.getParallelThreshold();
+    }
+
+    public int getParallelFanOutThreads() {
+        return fanOut.getParallelism();
+    }
+
+    /**
+     * Applies the default channel right away, then restores any stored preferences and ignores once the
+     * player's record has been loaded off-thread.
+     */
     public void initializePlayer(Player player, ChatChannel defaultChannel) {
-        if (defaultChannel == ChatChannel.STAFF && !player.hasPermission(STAFF_PERMISSION)) {
+        if (defaultChannel == ChatChannel.STAFF && !refreshStaff(player)) {
             defaultChannel = ChatChannel.SERVER;
         }
-        setSpeakChannelExclusive(player, defaultChannel);
+        outbound.register(player);
+        knownNames.remember(player.getUniqueId(), player.getUsername());
+        names.add(player.getUsername());
+        members.join(player);
+        String server = servers.get(player.getUniqueId());
+        if (server != null) {
+            members.moveTo(player.getUniqueId(), server);
+        }
+        ChatChannel initial = resolveSpeakChannel(player, defaultChannel);
+        long listening = 0L;
+        for (ChatChannel channel : config.getDefaultListening()) {
+            if (canUse(player, channel)) {
+                listening |= PreferenceBits.bit(channel);
+            }
+        }
+        long initialWord = PreferenceBits.exclusive(initial) | listening;
+        updatePreferences(player, word -> initialWord, false);
+        restoring.put(player.getUniqueId(), new PendingRestore());
+        ProxyNetwork linked = network;
+        if (linked != null) {
+            linked.publishJoin(player.getUniqueId(), player.getUsername(), isStaff(player));
+        }
+        store.load(player.getUniqueId()).thenAccept(stored -> restore(player, stored));
+    }
+
+    /**
+     * Records that {@code player} has connected to backend {@code server}, for the message {@code {server}}
+     * placeholder and for group-scoped channels.
+     */
+    public void updateServer(Player player, String server) {
+        servers.put(player.getUniqueId(), server);
+        members.moveTo(player.getUniqueId(), server);
+    }
+
+    public boolean isStaff(CommandSource source) {
+        if (source instanceof Player player) {
+            // Read-only here: only login and refreshStaff fill the cache, so a player looked up after leaving is
+            // not put back into it.
+            Boolean staff = staffCache.get(player.getUniqueId());
+            return staff != null ? staff : player.hasPermission(STAFF_PERMISSION);
+        }
+        return source.hasPermission(STAFF_PERMISSION);
+    }
+
+    /**
+     * Whether {@code player} may speak in and listen to {@code channel}: staff for the staff channel, the
+     * configured permission (if any) for the others. Channels no longer in the config are closed to everyone.
+     */
+    public boolean canUse(Player player, ChatChannel channel) {
+        if (channel == ChatChannel.SERVER) {
+            return true;
+        }
+        if (channel == ChatChannel.STAFF) {
+            return isStaff(player);
+        }
+        if (!config.isChannelConfigured(channel)) {
+            return false;
+        }
+        String permission = config.getChannelPermission(channel);
+        return permission == null || player.hasPermission(permission);
+    }
+
+    /**
+     * Re-reads the staff permission for a player. Losing it, or any channel's permission, drops the player out of
+     * those channels.
+     */
+    public boolean refreshStaff(Player player) {
+        boolean staff = player.hasPermission(STAFF_PERMISSION);
+        Boolean previous = staffCache.put(player.getUniqueId(), staff);
+        ProxyNetwork linked = network;
+        if (linked != null && previous != null && previous != staff) {
+            linked.publishJoin(player.getUniqueId(), player.getUsername(), staff);
+        }
+        Long word = preferences.get(player.getUniqueId());
+        if (word != null) {
+            long revoked = 0L;
+            for (ChatChannel channel : PreferenceBits.listening(word)) {
+                if (!canUse(player, channel)) {
+                    revoked |= PreferenceBits.bit(channel);
+                }
+            }
+            if (revoked != 0L) {
+                long dropped = revoked;
+                updatePreferences(player, current -> PreferenceBits.withoutListening(current, dropped));
+            }
+        }
+        return staff;
+    }
+
+    public int refreshStaff() {
+        int refreshed = 0;
+        for (Player player : proxy.getAllPlayers()) {
+            refreshStaff(player);
+            refreshed++;
+        }
+        return refreshed;
     }
 
     public ChatChannel getSpeakChannel(Player player) {
-        return getPreferences(player).getSpeakChannel();
+        return PreferenceBits.speak(getPreferences(player));
     }
 
     public void setSpeakChannel(Player player, ChatChannel channel) {
-        ChatPreferences prefs = getPreferences(player);
-        applySpeakChannel(player, prefs, channel);
+        ChatChannel applied = resolveSpeakChannel(player, channel);
+        updatePreferences(player, word -> PreferenceBits.withSpeak(word, applied));
     }
 
     public ChatChannel setSpeakChannelExclusive(Player player, ChatChannel channel) {
-        ChatPreferences prefs = getPreferences(player);
-        ChatChannel applied = applySpeakChannel(player, prefs, channel);
-        prefs.clearListening();
-        if (applied != ChatChannel.SERVER) {
-            prefs.enableListening(applied);
+        ChatChannel applied = resolveSpeakChannel(player, channel);
+        // Speaking in one channel alone decides every listening flag, not just the ones that changed.
+        touch(player.getUniqueId(), -1L);
+        long previous = updatePreferences(player, word -> PreferenceBits.exclusive(applied));
+        persistPreferences(player);
+        if (applied != ChatChannel.SERVER && !PreferenceBits.isListening(previous, applied)) {
+            replayHistory(player, applied);
         }
         return applied;
     }
@@ -66,12 +339,16 @@ public final class ChatManager {
         if (channel == ChatChannel.SERVER) {
             return true;
         }
-        ChatPreferences prefs = getPreferences(player);
-        if (channel == ChatChannel.STAFF && !player.hasPermission(STAFF_PERMISSION)) {
+        if (!canUse(player, channel)) {
             return false;
         }
-        boolean enable = !prefs.isListening(channel);
-        setListeningInternal(player, prefs, channel, enable);
+        long previous = updatePreferences(player,
+                word -> PreferenceBits.withListening(word, channel, !PreferenceBits.isListening(word, channel)));
+        boolean enable = !PreferenceBits.isListening(previous, channel);
+        persistPreferences(player);
+        if (enable) {
+            replayHistory(player, channel);
+        }
         return enable;
     }
 
@@ -79,11 +356,14 @@ public final class ChatManager {
         if (channel == ChatChannel.SERVER) {
             return true;
         }
-        ChatPreferences prefs = getPreferences(player);
-        if (channel == ChatChannel.STAFF && !player.hasPermission(STAFF_PERMISSION)) {
+        if (!canUse(player, channel)) {
             return false;
         }
-        setListeningInternal(player, prefs, channel, enable);
+        long previous = updatePreferences(player, word -> PreferenceBits.withListening(word, channel, enable));
+        persistPreferences(player);
+        if (enable && !PreferenceBits.isListening(previous, channel)) {
+            replayHistory(player, channel);
+        }
         return true;
     }
 
@@ -91,29 +371,88 @@ public final class ChatManager {
         if (channel == ChatChannel.SERVER) {
             return true;
         }
-        ChatPreferences prefs = getPreferences(player);
-        if (channel == ChatChannel.STAFF && !player.hasPermission(STAFF_PERMISSION)) {
+        if (!canUse(player, channel)) {
             return false;
         }
-        return prefs.isListening(channel);
+        return PreferenceBits.isListening(getPreferences(player), channel);
     }
 
     public void remove(Player player) {
         UUID id = player.getUniqueId();
         preferences.remove(id);
-        ignoreLists.remove(id);
-        lastConversation.entrySet().removeIf(entry -> entry.getKey().equals(id)
-                || (entry.getValue().partnerId != null && entry.getValue().partnerId.equals(id)));
+        restoring.remove(id);
+        dormantChannels.remove(id);
+        staffCache.remove(id);
+        rateLimiter.remove(id);
+        duplicateFilter.remove(id);
+        outbound.remove(id);
+        names.remove(player.getUsername());
+        members.leave(id);
+        servers.remove(id);
+        Map<UUID, String> ignored = ignoreLists.remove(id);
+        if (ignored != null) {
+            ignored.keySet().forEach(target -> unindexIgnore(id, target));
+        }
+        ConversationContext own = lastConversation.remove(id);
+        if (own != null) {
+            unindexConversation(id, own.partnerId);
+        }
+        Set<UUID> owners = conversationOwners.remove(id);
+        if (owners != null) {
+            owners.forEach(owner -> lastConversation.computeIfPresent(owner,
+                    (key, context) -> context.partnerId.equals(id) ? null : context));
+        }
+        ProxyNetwork linked = network;
+        if (linked != null) {
+            linked.publishLeave(id);
+        }
+    }
+
+    /**
+     * Looks up a player who is not online anywhere by the last name they were seen with, in memory only.
+     */
+    public Optional<NameRegistry.Entry> findKnownPlayer(String name) {
+        return knownNames.find(name);
+    }
+
+    /**
+     * Finds {@code name}, in any case, on {@code owner}'s own ignore list, whose names are kept as canonical
+     * Strings even for players who have not been seen for a long time.
+     */
+    public Optional<Map.Entry<UUID, String>> findIgnored(Player owner, String name) {
+        Map<UUID, String> ignored = ignoreLists.get(owner.getUniqueId());
+        if (ignored == null) {
+            return Optional.empty();
+        }
+        return ignored.entrySet().stream()
+                .filter(entry -> entry.getValue().equalsIgnoreCase(name))
+                .findFirst()
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue()));
     }
 
     public boolean toggleIgnore(Player owner, Player target) {
-        Map<UUID, String> ignored = ignoreLists.computeIfAbsent(owner.getUniqueId(), key -> new ConcurrentHashMap<>());
-        UUID targetId = target.getUniqueId();
-        if (ignored.containsKey(targetId)) {
-            ignored.remove(targetId);
+        return toggleIgnore(owner, target.getUniqueId(), target.getUsername());
+    }
+
+    /**
+     * Toggles an ignore by id, for targets that are not on this proxy.
+     */
+    public boolean toggleIgnore(Player owner, UUID targetId, String targetName) {
+        UUID ownerId = owner.getUniqueId();
+        PendingRestore pending = restoring.get(ownerId);
+        if (pending != null) {
+            pending.ignores.add(targetId);
+        }
+        Map<UUID, String> ignored = ignoreLists.computeIfAbsent(ownerId, key -> new ConcurrentHashMap<>());
+        if (ignored.remove(targetId) != null) {
+            unindexIgnore(ownerId, targetId);
+            store.saveUnignore(ownerId, targetId);
             return false;
         }
-        ignored.put(targetId, target.getUsername());
+        String name = knownNames.canonical(targetId, targetName);
+        ignored.put(targetId, name);
+        ignoredBy.computeIfAbsent(targetId, key -> ConcurrentHashMap.newKeySet()).add(ownerId);
+        store.saveIgnore(ownerId, targetId, name);
         return true;
     }
 
@@ -127,7 +466,106 @@ public final class ChatManager {
         if (ignored == null || ignored.isEmpty()) {
             return Collections.emptySet();
         }
-        return ignored.values().stream().collect(Collectors.toCollection(java.util.LinkedHashSet::new));
+        return ignored.values().stream().collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    /**
+     * Recent messages on {@code channel} that {@code viewer} may see, oldest first. Empty for SERVER chat and
+     * for channels the viewer may not use.
+     */
+    public List<Component> getHistory(Player viewer, ChatChannel channel, int limit) {
+        Map<String, MessageHistory> scoped = histories.get(channel);
+        MessageHistory history = scoped == null ? null : scoped.get(historyScope(channel, getServerName(viewer)));
+        if (history == null || limit <= 0 || !canUse(viewer, channel)) {
+            return List.of();
+        }
+        Map<UUID, String> ignored = ignoreLists.get(viewer.getUniqueId());
+        return history.recent(limit, ignored == null ? Collections.emptySet() : ignored.keySet());
+    }
+
+    public int getHistoryCapacity() {
+        return historyCapacity;
+    }
+
+    /**
+     * Messages dropped by the rate limiter on {@code channel} since startup.
+     */
+    public long getRateLimited(ChatChannel channel) {
+        return rateLimiter.getRejected(RateLimiter.slot(channel));
+    }
+
+    public long getPrivateRateLimited() {
+        return rateLimiter.getRejected(RateLimiter.PRIVATE);
+    }
+
+    public ChatMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Players with chat preferences held in memory.
+     */
+    public int getTrackedPlayers() {
+        return preferences.size();
+    }
+
+    public int getIgnoreListCount() {
+        return ignoreLists.size();
+    }
+
+    public int getConversationCount() {
+        return lastConversation.size();
+    }
+
+    public int getAudienceSize(ChatChannel channel) {
+        return members.size(channel);
+    }
+
+    /**
+     * Channel messages queued on the dispatch lanes and not yet delivered.
+     */
+    public int getDispatchBacklog() {
+        ChatDispatcher current = dispatcher;
+        return current == null ? 0 : current.backlog();
+    }
+
+    /**
+     * Players currently fed from a backlog queue, longest queue first.
+     */
+    public List<LaggingRecipient> getLaggingRecipients(int limit) {
+        return outbound.laggingRecipients(limit);
+    }
+
+    public int getLaggingCount() {
+        return outbound.getLaggingCount();
+    }
+
+    /**
+     * Messages waiting in lagging players' queues.
+     */
+    public int getRecipientBacklog() {
+        return outbound.getQueued();
+    }
+
+    /**
+     * Chat lines dropped from lagging players' queues since startup.
+     */
+    public long getRecipientDropped() {
+        return outbound.getDropped();
+    }
+
+    /**
+     * Repeated channel messages dropped by the duplicate filter since startup.
+     */
+    public long getDuplicatesSuppressed() {
+        return duplicateFilter.getSuppressed();
+    }
+
+    /**
+     * Online players with the most rate-limited messages, as name and count, most first.
+     */
+    public List<Map.Entry<String, Long>> getRateLimitOffenders(int limit) {
+        return rateLimiter.topOffenders(limit);
     }
 
     public void sendNetworkMessage(Player sender, String rawMessage) {
@@ -138,83 +576,212 @@ public final class ChatManager {
         dispatchToChannel(sender, rawMessage, ChatChannel.STAFF);
     }
 
+    /**
+     * Sends to any broadcast channel; callers check {@link #canUse} first.
+     */
+    public void sendChannelMessage(Player sender, String rawMessage, ChatChannel channel) {
+        dispatchToChannel(sender, rawMessage, channel);
+    }
+
     private void dispatchToChannel(Player sender, String rawMessage, ChatChannel channel) {
-        String serverName = sender.getCurrentServer()
-                .map(ServerConnection::getServerInfo)
-                .map(ServerInfo::getName)
-                .orElse("Unknown");
-
-        String format = config.getFormat(channel);
-        String prefix = config.getPrefix(channel);
-        Component component = TextFormatter.format(format, Map.of(
-                "prefix", prefix,
-                "player", sender.getUsername(),
-                "message", rawMessage,
-                "server", serverName
-        ));
-
-        UUID senderId = sender.getUniqueId();
-        proxy.getAllPlayers().forEach(player -> {
-            if (channel == ChatChannel.STAFF && !player.hasPermission(STAFF_PERMISSION)) {
-                return;
-            }
-            boolean listening = isListening(player, channel);
-            if (!listening && !player.getUniqueId().equals(senderId)) {
-                return;
-            }
-            if (isIgnoring(player.getUniqueId(), sender.getUniqueId())) {
-                return;
-            }
-            player.sendMessage(component);
-        });
+        if (config.isRateLimitEnabled() && !rateLimiter.tryAcquire(sender.getUniqueId(), sender.getUsername(),
+                RateLimiter.slot(channel), config.getChannelRateLimit(channel))) {
+            sender.sendMessage(config.message(sender, Message.RATE_LIMITED));
+            return;
+        }
+        if (config.isDuplicateFilterEnabled() && duplicateFilter.isDuplicate(sender.getUniqueId(), channel, rawMessage,
+                config.getDuplicateWindowSize(), config.getDuplicateWindowMillis())) {
+            sender.sendMessage(config.message(sender, Message.DUPLICATE_MESSAGE));
+            return;
+        }
+        String serverName = getServerName(sender);
+
+        long accepted = System.nanoTime();
+        if (!submit(channel, () -> deliverToChannel(sender, rawMessage, serverName, channel, accepted))) {
+            metrics.recordBusy(channel);
+            sender.sendMessage(config.message(sender, Message.CHAT_BUSY));
+        }
+    }
+
+    private boolean submit(ChatChannel channel, Runnable task) {
+        ChatDispatcher current = dispatcher;
+        if (current == null) {
+            task.run();
+            return true;
+        }
+        return current.submit(channel, task);
+    }
+
+    private void deliverToChannel(Player sender, String rawMessage, String serverName, ChatChannel channel,
+                                  long accepted) {
+        ChatTemplate template = config.getChannelTemplate(channel);
+        if (template == null) {
+            // Removed from the config while the message was queued.
+            return;
+        }
+        Component component = template.render(sender.getUsername(), rawMessage, serverName);
+        broadcast(channel, serverName, sender.getUniqueId(), sender, component);
+        metrics.recordDispatch(channel, System.nanoTime() - accepted);
+        ProxyNetwork linked = network;
+        if (linked != null) {
+            linked.publishChannel(channel.name(), sender.getUniqueId(), sender.getUsername(), serverName, rawMessage);
+        }
+    }
+
+    /**
+     * Sends {@code component} to the channel's local audience minus the sender's ignorers. On group-scoped
+     * channels only players on backends in the same server group as {@code server}, the sender's, are included.
+     * A local {@code sender} always sees their own message; remote messages pass {@code null}.
+     */
+    private void broadcast(ChatChannel channel, String server, UUID senderId, Player sender, Component component) {
+        MessageHistory history = history(channel, historyScope(channel, server));
+        if (history != null) {
+            history.add(senderId, component);
+        }
+        int[] scope = null;
+        if (config.isGroupScoped(channel)) {
+            String group = config.getServerGroup(server);
+            scope = members.servers(candidate -> Objects.equals(config.getServerGroup(candidate), group));
+        }
+        List<Player> recipients = new ArrayList<>(members.size(channel) + 1);
+        Set<UUID> ignorers = senderId == null ? null : ignoredBy.get(senderId);
+        members.collect(channel, scope, ignorers == null || ignorers.isEmpty() ? null : ignorers, recipients);
+        if (sender != null && !members.contains(senderId, channel)) {
+            recipients.add(sender);
+        }
+        metrics.recordChannelMessage(channel, recipients.size());
+        fanOut.deliver(recipients, component, false);
     }
 
     public void sendAlert(CommandSource source, String rawMessage) {
         String senderName = resolveName(source);
-        Component component = TextFormatter.format(config.getAlertFormat(), Map.of(
-                "prefix", config.getAlertPrefix(),
-                "message", rawMessage,
-                "sender", senderName
-        ));
+        deliverAlert(rawMessage, senderName);
+        ProxyNetwork linked = network;
+        if (linked != null) {
+            linked.publishAlert(senderName, rawMessage);
+        }
+    }
 
-        proxy.getAllPlayers().forEach(player -> player.sendMessage(component));
-        proxy.getConsoleCommandSource().sendMessage(component);
+    /**
+     * Renders the alert once per distinct alert template among online players' locales, usually just once, and
+     * delivers each rendering to the players who use it.
+     */
+    private void deliverAlert(String rawMessage, String senderName) {
+        metrics.recordAlert();
+        Map<ChatTemplate, List<Player>> audiences = new IdentityHashMap<>();
+        for (Player player : proxy.getAllPlayers()) {
+            audiences.computeIfAbsent(config.catalog(player).getAlertTemplate(), key -> new ArrayList<>()).add(player);
+        }
+        audiences.forEach((template, players) -> fanOut.deliver(players, template.render(rawMessage, senderName), true));
+        proxy.getConsoleCommandSource().sendMessage(config.getAlertTemplate().render(rawMessage, senderName));
     }
 
     public void sendPrivateMessage(CommandSource source, Player target, String rawMessage) {
         Player sender = source instanceof Player player ? player : null;
+        if (isPrivateRateLimited(sender)) {
+            return;
+        }
         String senderName = sender != null ? sender.getUsername() : resolveName(source);
         String targetName = target.getUsername();
 
         if (sender != null && isIgnoring(target.getUniqueId(), sender.getUniqueId())) {
-            source.sendMessage(TextFormatter.colorize(config.message("ignored-you", "&c{target} is ignoring you.")
-                    .replace("{target}", targetName)));
+            source.sendMessage(config.message(source, Message.IGNORED_YOU, targetName));
             return;
         }
 
-        Component sendComponent = TextFormatter.format(config.getPrivateSendFormat(), Map.of(
-                "sender", senderName,
-                "target", targetName,
-                "message", rawMessage
-        ));
-        Component receiveComponent = TextFormatter.format(config.getPrivateReceiveFormat(), Map.of(
-                "sender", senderName,
-                "target", targetName,
-                "message", rawMessage
-        ));
+        Component sendComponent = config.getPrivateSendTemplate().render(senderName, targetName, rawMessage);
+        Component receiveComponent = config.getPrivateReceiveTemplate().render(senderName, targetName, rawMessage);
 
         if (sender != null) {
-            sender.sendMessage(sendComponent);
+            outbound.send(sender, sendComponent, true);
         } else {
             source.sendMessage(sendComponent);
         }
-        target.sendMessage(receiveComponent);
+        outbound.send(target, receiveComponent, true);
+        metrics.recordPrivateMessage();
         if (sender != null) {
             recordConversation(sender.getUniqueId(), target.getUniqueId(), targetName);
         }
         recordConversation(target.getUniqueId(), sender != null ? sender.getUniqueId() : null, senderName);
     }
 
+    /**
+     * Routes a private message to the proxy that owns {@code target}. The sender sees the outgoing line only once
+     * that proxy confirms delivery, so ignores and logouts on the far side read the same as they do locally.
+     */
+    public void sendRemotePrivateMessage(CommandSource source, PlayerDirectory.Entry target, String rawMessage) {
+        Player sender = source instanceof Player player ? player : null;
+        if (isPrivateRateLimited(sender)) {
+            return;
+        }
+        ProxyNetwork linked = network;
+        if (linked == null) {
+            source.sendMessage(config.message(source, Message.PLAYER_NOT_FOUND, target.getName()));
+            return;
+        }
+        linked.sendPrivate(target.getProxyId(), sender != null ? sender.getUniqueId() : null, resolveName(source),
+                target.getId(), target.getName(), rawMessage);
+    }
+
+    private boolean isPrivateRateLimited(Player sender) {
+        if (sender != null && config.isRateLimitEnabled() && !rateLimiter.tryAcquire(sender.getUniqueId(),
+                sender.getUsername(), RateLimiter.PRIVATE, config.getPrivateRateLimit())) {
+            sender.sendMessage(config.message(sender, Message.RATE_LIMITED));
+            return true;
+        }
+        return false;
+    }
+
+    private void receivePrivate(Envelope envelope) {
+        ProxyNetwork linked = network;
+        if (linked == null || envelope.getTarget() == null) {
+            return;
+        }
+        Optional<Player> found = proxy.getPlayer(envelope.getTarget());
+        if (found.isEmpty()) {
+            linked.replyPrivate(envelope, Envelope.Type.PRIVATE_OFFLINE);
+            return;
+        }
+        Player target = found.get();
+        UUID senderId = envelope.getSender();
+        if (senderId != null && isIgnoring(target.getUniqueId(), senderId)) {
+            linked.replyPrivate(envelope, Envelope.Type.PRIVATE_IGNORED);
+            return;
+        }
+        outbound.send(target, config.getPrivateReceiveTemplate()
+                .render(envelope.getSenderName(), target.getUsername(), envelope.getMessage()), true);
+        recordConversation(target.getUniqueId(), senderId, envelope.getSenderName());
+        metrics.recordPrivateMessage();
+        linked.replyPrivate(envelope, Envelope.Type.PRIVATE_DELIVERED);
+    }
+
+    private void completePrivate(Envelope envelope) {
+        UUID senderId = envelope.getSender();
+        CommandSource source = senderId == null
+                ? proxy.getConsoleCommandSource()
+                : proxy.getPlayer(senderId).orElse(null);
+        if (source == null) {
+            return;
+        }
+        String targetName = envelope.getTargetName();
+        switch (envelope.getType()) {
+            case PRIVATE_DELIVERED -> {
+                Component sent = config.getPrivateSendTemplate()
+                        .render(envelope.getSenderName(), targetName, envelope.getMessage());
+                if (source instanceof Player player) {
+                    outbound.send(player, sent, true);
+                } else {
+                    source.sendMessage(sent);
+                }
+                recordConversation(senderId, envelope.getTarget(), targetName);
+            }
+            case PRIVATE_IGNORED -> source.sendMessage(config.message(source, Message.IGNORED_YOU, targetName));
+            case PRIVATE_OFFLINE -> source.sendMessage(config.message(source, Message.PLAYER_NOT_FOUND, targetName));
+            default -> {
+            }
+        }
+    }
+
     public Optional<Player> getLastConversationPartner(Player player) {
         ConversationContext context = lastConversation.get(player.getUniqueId());
         if (context == null) {
@@ -227,13 +794,29 @@ public final class ChatManager {
         return partner;
     }
 
+    /**
+     * The last conversation partner when they are online on another proxy.
+     */
+    public Optional<PlayerDirectory.Entry> getRemoteConversationPartner(Player player) {
+        ConversationContext context = lastConversation.get(player.getUniqueId());
+        ProxyNetwork linked = network;
+        if (context == null || linked == null) {
+            return Optional.empty();
+        }
+        return linked.getDirectory().find(context.partnerId);
+    }
+
     public Optional<String> getLastConversationPartnerName(Player player) {
         ConversationContext context = lastConversation.get(player.getUniqueId());
         return context == null ? Optional.empty() : Optional.ofNullable(context.partnerName);
     }
 
     public void clearLastConversation(Player player) {
-        lastConversation.remove(player.getUniqueId());
+        UUID id = player.getUniqueId();
+        ConversationContext removed = lastConversation.remove(id);
+        if (removed != null) {
+            unindexConversation(id, removed.partnerId);
+        }
     }
 
     private String resolveName(CommandSource source) {
@@ -243,66 +826,243 @@ public final class ChatManager {
         return "Console";
     }
 
-    private ChatPreferences getPreferences(Player player) {
-        return preferences.computeIfAbsent(player.getUniqueId(), id -> new ChatPreferences());
+    private static ChatChannel parseChannel(String name) {
+        if (name == null) {
+            return null;
+        }
+        try {
+            return ChatChannel.valueOf(name);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
     }
 
-    private void recordConversation(UUID owner, UUID partner, String partnerName) {
-        if (owner == null || partner == null) {
-            return;
+    private MessageHistory history(ChatChannel channel, String scope) {
+        int capacity = historyCapacity;
+        if (capacity == 0 || channel == ChatChannel.SERVER) {
+            return null;
         }
-        lastConversation.put(owner, new ConversationContext(partner, partnerName));
+        return histories.computeIfAbsent(channel, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(scope, key -> new MessageHistory(capacity));
     }
 
-    private ChatChannel applySpeakChannel(Player player, ChatPreferences prefs, ChatChannel channel) {
-        if (channel == ChatChannel.STAFF && !player.hasPermission(STAFF_PERMISSION)) {
-            prefs.setSpeakChannel(ChatChannel.SERVER);
-        } else {
-            prefs.setSpeakChannel(channel);
+    /**
+     * The server group whose history a message on {@code channel} from {@code server} belongs to, or {@code ""}
+     * for channels that are not group-scoped and for servers outside every group.
+     */
+    private String historyScope(ChatChannel channel, String server) {
+        String group = config.isGroupScoped(channel) ? config.getServerGroup(server) : null;
+        return group == null ? "" : group;
+    }
+
+    /**
+     * The player's backend server from the session cache, falling back to asking Velocity (and caching the
+     * answer) for players whose connection event this plugin did not see.
+     */
+    private String getServerName(Player player) {
+        String cached = servers.get(player.getUniqueId());
+        if (cached != null) {
+            return cached;
         }
-        return prefs.getSpeakChannel();
+        Optional<String> current = player.getCurrentServer()
+                .map(ServerConnection::getServerInfo)
+                .map(ServerInfo::getName);
+        current.ifPresent(name -> servers.put(player.getUniqueId(), name));
+        return current.orElse("Unknown");
     }
 
-    private void setListeningInternal(Player player, ChatPreferences prefs, ChatChannel channel, boolean enable) {
-        if (enable) {
-            prefs.enableListening(channel);
-        } else {
-            prefs.disableListening(channel);
-            if (prefs.getSpeakChannel() == channel) {
-                prefs.setSpeakChannel(ChatChannel.SERVER);
+    private long getPreferences(Player player) {
+        return preferences.getOrDefault(player.getUniqueId(), PreferenceBits.DEFAULT);
+    }
+
+    /**
+     * Applies {@code change} to the player's preference word with compare-and-set, retrying if another thread got
+     * there first, then brings the channel bitsets in line. {@code change} must have no side effects, as it may
+     * run more than once.
+     *
+     * @return the word before the change
+     */
+    private long updatePreferences(Player player, LongUnaryOperator change) {
+        return updatePreferences(player, change, true);
+    }
+
+    /**
+     * @param track whether the change counts as the player's own while their stored record is loading, so the
+     *              restore leaves the fields it changed alone
+     */
+    private long updatePreferences(Player player, LongUnaryOperator change, boolean track) {
+        UUID id = player.getUniqueId();
+        while (true) {
+            Long current = preferences.get(id);
+            long word = current == null ? PreferenceBits.DEFAULT : current;
+            long next = change.applyAsLong(word);
+            if (track) {
+                // Marked before the swap, so a restore that wins the race still sees it and retries.
+                touch(id, PreferenceBits.changed(word, next));
+            }
+            boolean swapped = current == null
+                    ? preferences.putIfAbsent(id, PreferenceBits.box(next)) == null
+                    : preferences.replace(id, current, PreferenceBits.box(next));
+            if (swapped) {
+                syncMembership(id, PreferenceBits.listeningBits(word ^ next));
+                return word;
             }
         }
     }
 
-    private static final class ChatPreferences {
-        private ChatChannel speakChannel = ChatChannel.SERVER;
-        private final EnumSet<ChatChannel> listening = EnumSet.noneOf(ChatChannel.class);
+    /**
+     * Like {@link #updatePreferences}, but gives up instead of creating a word for a player who has left.
+     *
+     * @return whether the change was applied
+     */
+    private boolean updateExistingPreferences(UUID id, LongUnaryOperator change) {
+        while (true) {
+            Long current = preferences.get(id);
+            if (current == null) {
+                return false;
+            }
+            long word = current;
+            long next = change.applyAsLong(word);
+            if (preferences.replace(id, current, PreferenceBits.box(next))) {
+                syncMembership(id, PreferenceBits.listeningBits(word ^ next));
+                return true;
+            }
+        }
+    }
 
-        ChatChannel getSpeakChannel() {
-            return speakChannel;
+    /**
+     * Applies the stored record once it has loaded, merged into the live state: channel settings and ignores the
+     * player changed since login are kept as they are now.
+     */
+    private void restore(Player player, StoredPlayer stored) {
+        UUID id = player.getUniqueId();
+        PendingRestore pending = restoring.get(id);
+        if (stored == null || pending == null) {
+            restoring.remove(id, pending);
+            return;
         }
+        // Merged while holding the pending entry: remove() takes it out before tearing down the rest of the player's
+        // state, so it either waits and then clears what the merge wrote, or the merge finds it gone and writes nothing.
+        restoring.computeIfPresent(id, (key, current) -> {
+            if (current == pending) {
+                merge(player, stored, pending);
+                return null;
+            }
+            return current;
+        });
+    }
 
-        void setSpeakChannel(ChatChannel channel) {
-            this.speakChannel = channel;
+    private void merge(Player player, StoredPlayer stored, PendingRestore pending) {
+        UUID id = player.getUniqueId();
+        if (!preferences.containsKey(id)) {
+            return;
         }
+        if (stored.hasPreferences()) {
+            long listening = 0L;
+            Set<String> dormant = new LinkedHashSet<>(stored.getUnknownListening());
+            for (ChatChannel channel : stored.getListening()) {
+                if (channel != ChatChannel.SERVER && canUse(player, channel)) {
+                    listening |= PreferenceBits.bit(channel);
+                } else if (!channel.isBuiltIn() && !config.isChannelConfigured(channel)) {
+                    dormant.add(channel.name());
+                }
+            }
+            if (!dormant.isEmpty()) {
+                dormantChannels.put(id, dormant);
+            }
+            long restored = PreferenceBits.of(resolveSpeakChannel(player, stored.getSpeakChannel()), listening);
+            if (!updateExistingPreferences(id, word -> PreferenceBits.merge(word, restored, pending.touched.get()))) {
+                return;
+            }
+        }
+        if (!stored.getIgnored().isEmpty()) {
+            Map<UUID, String> ignored = ignoreLists.computeIfAbsent(id, key -> new ConcurrentHashMap<>());
+            stored.getIgnored().forEach((target, name) -> {
+                if (pending.ignores.contains(target)) {
+                    return;
+                }
+                ignored.put(target, knownNames.canonical(target, name));
+                ignoredBy.computeIfAbsent(target, key -> ConcurrentHashMap.newKeySet()).add(id);
+            });
+        }
+    }
+
+    private void touch(UUID id, long fields) {
+        PendingRestore pending = restoring.get(id);
+        if (pending != null && fields != 0L) {
+            pending.touched.accumulateAndGet(fields, (current, added) -> current | added);
+        }
+    }
 
-        boolean isListening(ChatChannel channel) {
-            return listening.contains(channel);
+    private void replayHistory(Player player, ChatChannel channel) {
+        int lines = config.getHistoryReplayLines();
+        if (lines > 0) {
+            getHistory(player, channel, lines).forEach(player::sendMessage);
         }
+    }
 
-        void enableListening(ChatChannel channel) {
-            listening.add(channel);
+    private void persistPreferences(Player player) {
+        Long word = preferences.get(player.getUniqueId());
+        if (word != null) {
+            store.savePreferences(player.getUniqueId(), PreferenceBits.speak(word), PreferenceBits.listening(word),
+                    dormantChannels.getOrDefault(player.getUniqueId(), Set.of()));
         }
+    }
 
-        void disableListening(ChatChannel channel) {
-            listening.remove(channel);
+    private void unindexIgnore(UUID owner, UUID target) {
+        ignoredBy.computeIfPresent(target, (key, owners) -> {
+            owners.remove(owner);
+            return owners.isEmpty() ? null : owners;
+        });
+    }
+
+    private void recordConversation(UUID owner, UUID partner, String partnerName) {
+        if (owner == null || partner == null) {
+            return;
         }
+        ConversationContext previous = lastConversation.put(owner, new ConversationContext(partner, partnerName));
+        if (previous != null && !previous.partnerId.equals(partner)) {
+            unindexConversation(owner, previous.partnerId);
+        }
+        conversationOwners.computeIfAbsent(partner, key -> ConcurrentHashMap.newKeySet()).add(owner);
+    }
+
+    private void unindexConversation(UUID owner, UUID partner) {
+        conversationOwners.computeIfPresent(partner, (key, owners) -> {
+            owners.remove(owner);
+            return owners.isEmpty() ? null : owners;
+        });
+    }
 
-        void clearListening() {
-            listening.clear();
+    private ChatChannel resolveSpeakChannel(Player player, ChatChannel channel) {
+        return canUse(player, channel) ? channel : ChatChannel.SERVER;
+    }
+
+    /**
+     * Makes the bitsets of the {@code changed} channels match the player's current word. Rechecks afterwards, so a
+     * sync racing a newer update cannot leave a channel on the older state; channels the newer update touched are
+     * synced by its own caller.
+     */
+    private void syncMembership(UUID id, long changed) {
+        while (changed != 0L) {
+            Long word = preferences.get(id);
+            for (long bits = changed; bits != 0L; bits &= bits - 1) {
+                ChatChannel channel = ChatChannel.byOrdinal(Long.numberOfTrailingZeros(bits));
+                members.set(id, channel, word != null && PreferenceBits.isListening(word, channel));
+            }
+            if (Objects.equals(word, preferences.get(id))) {
+                return;
+            }
         }
     }
 
+    private static final class PendingRestore {
+        /** {@link PreferenceBits#changed} fields the player has changed since login. */
+        private final AtomicLong touched = new AtomicLong();
+        /** Players the player has ignored or un-ignored since login. */
+        private final Set<UUID> ignores = ConcurrentHashMap.newKeySet();
+    }
+
     private static final class ConversationContext {
         private final UUID partnerId;
         private final String partnerName;
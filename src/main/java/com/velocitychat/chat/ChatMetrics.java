@@ -0,0 +1,94 @@
+package com.velocitychat.chat;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running counters for chat traffic. Everything is a {@link LongAdder} or a {@link DurationHistogram} indexed by
+ * channel ordinal, so the send path only increments and never allocates.
+ */
+public final class ChatMetrics {
+    private static final int CHANNELS = ChatChannel.MAX_CHANNELS;
+
+    private final LongAdder[] messages = adders(CHANNELS);
+    private final LongAdder[] recipients = adders(CHANNELS);
+    private final LongAdder[] busy = adders(CHANNELS);
+    private final DurationHistogram[] dispatch = new DurationHistogram[CHANNELS];
+    private final LongAdder privateMessages = new LongAdder();
+    private final LongAdder alerts = new LongAdder();
+
+    ChatMetrics() {
+        for (int i = 0; i < CHANNELS; i++) {
+            dispatch[i] = new DurationHistogram();
+        }
+    }
+
+    void recordChannelMessage(ChatChannel channel, int audience) {
+        messages[channel.ordinal()].increment();
+        recipients[channel.ordinal()].add(audience);
+    }
+
+    /**
+     * Time from a local message being accepted to its last local delivery, queueing included.
+     */
+    void recordDispatch(ChatChannel channel, long nanos) {
+        dispatch[channel.ordinal()].record(nanos);
+    }
+
+    void recordBusy(ChatChannel channel) {
+        busy[channel.ordinal()].increment();
+    }
+
+    void recordPrivateMessage() {
+        privateMessages.increment();
+    }
+
+    void recordAlert() {
+        alerts.increment();
+    }
+
+    /**
+     * Channel messages delivered on this proxy, local and remote.
+     */
+    public long getMessages(ChatChannel channel) {
+        return messages[channel.ordinal()].sum();
+    }
+
+    /**
+     * Total recipients over all messages on the channel; divide by {@link #getMessages} for the average audience.
+     */
+    public long getRecipients(ChatChannel channel) {
+        return recipients[channel.ordinal()].sum();
+    }
+
+    public double getAverageAudience(ChatChannel channel) {
+        long count = getMessages(channel);
+        return count == 0 ? 0.0 : (double) getRecipients(channel) / count;
+    }
+
+    /**
+     * Messages turned away because the channel's dispatch lane was full.
+     */
+    public long getBusy(ChatChannel channel) {
+        return busy[channel.ordinal()].sum();
+    }
+
+    public DurationHistogram getDispatch(ChatChannel channel) {
+        return dispatch[channel.ordinal()];
+    }
+
+    public long getPrivateMessages() {
+        return privateMessages.sum();
+    }
+
+    public long getAlerts() {
+        return alerts.sum();
+    }
+
+    private static LongAdder[] adders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+}
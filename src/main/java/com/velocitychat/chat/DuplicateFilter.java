@@ -0,0 +1,99 @@
+package com.velocitychat.chat;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Drops messages a player has just sent on the same channel, compared by a fingerprint of the normalized text.
+ *
+ * <p>Normalization ignores case, whitespace, punctuation and repeated characters, so "Hello!!", "hello" and
+ * "HELLOOO" share a fingerprint. Each player keeps a fixed-size ring of recent fingerprints per channel; the hash is
+ * computed in place, so checking a message allocates nothing.</p>
+ */
+final class DuplicateFilter {
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final Map<UUID, Window> windows = new ConcurrentHashMap<>();
+    private final LongAdder suppressed = new LongAdder();
+
+    /**
+     * Records {@code message} and returns {@code true} if the same fingerprint was already seen from this player on
+     * {@code channel} within {@code windowMillis}.
+     */
+    boolean isDuplicate(UUID player, ChatChannel channel, String message, int windowSize, long windowMillis) {
+        Window window = windows.computeIfAbsent(player, id -> new Window(windowSize));
+        boolean duplicate = window.checkAndRecord(channel.ordinal(), fingerprint(message), System.currentTimeMillis(),
+                windowMillis);
+        if (duplicate) {
+            suppressed.increment();
+        }
+        return duplicate;
+    }
+
+    void remove(UUID player) {
+        windows.remove(player);
+    }
+
+    long getSuppressed() {
+        return suppressed.sum();
+    }
+
+    static long fingerprint(String message) {
+        long hash = FNV_OFFSET;
+        int previous = -1;
+        boolean any = false;
+        for (int i = 0; i < message.length(); i++) {
+            char c = message.charAt(i);
+            if (!Character.isLetterOrDigit(c)) {
+                continue;
+            }
+            int lower = Character.toLowerCase(c);
+            if (lower == previous) {
+                continue;
+            }
+            previous = lower;
+            any = true;
+            hash ^= lower;
+            hash *= FNV_PRIME;
+        }
+        return any ? hash : message.trim().hashCode();
+    }
+
+    private static final class Window {
+        private final int size;
+        private long[] hashes;
+        private long[] times;
+        private int[] cursors;
+
+        private Window(int size) {
+            this.size = Math.max(1, size);
+            this.cursors = new int[ChatChannel.count()];
+            this.hashes = new long[cursors.length * this.size];
+            this.times = new long[cursors.length * this.size];
+        }
+
+        synchronized boolean checkAndRecord(int slot, long hash, long now, long windowMillis) {
+            if (slot >= cursors.length) {
+                // A channel registered by a config reload after this window was created.
+                cursors = Arrays.copyOf(cursors, ChatChannel.count());
+                hashes = Arrays.copyOf(hashes, cursors.length * size);
+                times = Arrays.copyOf(times, cursors.length * size);
+            }
+            int base = slot * size;
+            for (int i = base; i < base + size; i++) {
+                if (times[i] != 0L && hashes[i] == hash && now - times[i] <= windowMillis) {
+                    return true;
+                }
+            }
+            int index = base + cursors[slot];
+            hashes[index] = hash;
+            times[index] = now;
+            cursors[slot] = (cursors[slot] + 1) % size;
+            return false;
+        }
+    }
+}
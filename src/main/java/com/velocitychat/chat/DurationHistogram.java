@@ -0,0 +1,83 @@
+package com.velocitychat.chat;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram with fixed bucket bounds. Each bucket is a striped counter, so concurrent recording neither
+ * contends on one cache line nor allocates once the stripes exist.
+ */
+public final class DurationHistogram {
+    /** Upper bucket bounds in nanoseconds; anything slower lands in the overflow bucket. */
+    private static final long[] BOUNDS_NANOS = {
+            50_000L, 100_000L, 250_000L, 500_000L,
+            1_000_000L, 2_500_000L, 5_000_000L, 10_000_000L, 25_000_000L, 50_000_000L,
+            100_000_000L, 250_000_000L, 500_000_000L, 1_000_000_000L
+    };
+
+    private final LongAdder[] buckets = new LongAdder[BOUNDS_NANOS.length + 1];
+    private final LongAdder sumNanos = new LongAdder();
+
+    public DurationHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        int bucket = 0;
+        while (bucket < BOUNDS_NANOS.length && nanos > BOUNDS_NANOS[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        sumNanos.add(nanos);
+    }
+
+    public static int bucketCount() {
+        return BOUNDS_NANOS.length + 1;
+    }
+
+    /**
+     * Upper bound of {@code bucket} in nanoseconds, or {@link Long#MAX_VALUE} for the overflow bucket.
+     */
+    public static long upperBoundNanos(int bucket) {
+        return bucket < BOUNDS_NANOS.length ? BOUNDS_NANOS[bucket] : Long.MAX_VALUE;
+    }
+
+    /**
+     * Per-bucket (not cumulative) counts at the time of the call.
+     */
+    public long[] snapshot() {
+        long[] counts = new long[buckets.length];
+        for (int i = 0; i < buckets.length; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return counts;
+    }
+
+    public long getSumNanos() {
+        return sumNanos.sum();
+    }
+
+    /**
+     * Upper bound of the bucket holding the {@code quantile} (0..1) value of {@code counts}; {@code -1} when empty
+     * and {@link Long#MAX_VALUE} when it falls in the overflow bucket.
+     */
+    public static long percentile(long[] counts, double quantile) {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        if (total == 0) {
+            return -1L;
+        }
+        long rank = Math.max(1L, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return upperBoundNanos(i);
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+}
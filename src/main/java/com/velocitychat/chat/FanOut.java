@@ -0,0 +1,110 @@
+package com.velocitychat.chat;
+
+import com.velocitypowered.api.proxy.Player;
+import net.kyori.adventure.text.Component;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Delivers one rendered component to a list of recipients.
+ *
+ * <p>Audiences below the parallel threshold are sent serially on the calling thread. Larger audiences are split
+ * into shards delivered in parallel on a dedicated pool; the call still returns only once every shard is done, so
+ * ordering on the calling dispatch lane is unaffected. Every send goes through {@link Outbound}, which may queue it
+ * for a lagging player instead.</p>
+ */
+final class FanOut {
+    private final int parallelThreshold;
+    private final int shardSize;
+    private final ForkJoinPool pool;
+    private final Outbound outbound;
+
+    FanOut(int parallelThreshold, int shardSize, int threads, Outbound outbound) {
+        this.parallelThreshold = parallelThreshold;
+        this.shardSize = Math.max(1, shardSize);
+        this.pool = parallelThreshold > 0
+                ? new ForkJoinPool(Math.max(1, threads), FanOut::newThread, null, false)
+                : null;
+        this.outbound = outbound;
+    }
+
+    /**
+     * Serial fan-out only; used before the plugin has started its workers.
+     */
+    static FanOut serial() {
+        return new FanOut(0, 1, 0, Outbound.direct());
+    }
+
+    int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    int getShardSize() {
+        return shardSize;
+    }
+
+    int getParallelism() {
+        return pool == null ? 0 : pool.getParallelism();
+    }
+
+    /**
+     * @param priority alerts and private messages, which a lagging player's queue never drops
+     */
+    void deliver(List<Player> recipients, Component component, boolean priority) {
+        int size = recipients.size();
+        if (pool == null || size < parallelThreshold || pool.isShutdown()) {
+            sendRange(recipients, component, priority, 0, size);
+            return;
+        }
+        pool.invoke(new Shard(recipients, component, priority, 0, size));
+    }
+
+    void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    private void sendRange(List<Player> recipients, Component component, boolean priority, int from, int to) {
+        for (int i = from; i < to; i++) {
+            outbound.send(recipients.get(i), component, priority);
+        }
+    }
+
+    private static ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("VelocityChat FanOut #" + thread.getPoolIndex());
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private final class Shard extends RecursiveAction {
+        private final List<Player> recipients;
+        private final Component component;
+        private final boolean priority;
+        private final int from;
+        private final int to;
+
+        private Shard(List<Player> recipients, Component component, boolean priority, int from, int to) {
+            this.recipients = recipients;
+            this.component = component;
+            this.priority = priority;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= shardSize) {
+                sendRange(recipients, component, priority, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Shard(recipients, component, priority, from, mid),
+                    new Shard(recipients, component, priority, mid, to));
+        }
+    }
+}
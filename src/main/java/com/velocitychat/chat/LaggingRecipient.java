@@ -0,0 +1,49 @@
+package com.velocitychat.chat;
+
+/**
+ * A player currently fed from a backlog queue because they could not keep up with chat.
+ */
+public final class LaggingRecipient {
+    private final String name;
+    private final int queued;
+    private final long dropped;
+    private final long sendNanos;
+    private final long ping;
+
+    LaggingRecipient(String name, int queued, long dropped, long sendNanos, long ping) {
+        this.name = name;
+        this.queued = queued;
+        this.dropped = dropped;
+        this.sendNanos = sendNanos;
+        this.ping = ping;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getQueued() {
+        return queued;
+    }
+
+    /**
+     * Chat lines dropped from this player's queue this session.
+     */
+    public long getDropped() {
+        return dropped;
+    }
+
+    /**
+     * Moving average of how long one send to this player takes.
+     */
+    public long getSendNanos() {
+        return sendNanos;
+    }
+
+    /**
+     * Last known ping in milliseconds, or {@code -1} if unknown.
+     */
+    public long getPing() {
+        return ping;
+    }
+}
@@ -0,0 +1,67 @@
+package com.velocitychat.chat;
+
+import net.kyori.adventure.text.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Fixed-capacity ring of already-rendered channel messages. Inserts overwrite the oldest slot in place, so the
+ * buffer never grows and recording a message allocates nothing.
+ */
+final class MessageHistory {
+    private final Component[] messages;
+    private final UUID[] senders;
+    private long written;
+
+    MessageHistory(int capacity) {
+        this.messages = new Component[Math.max(1, capacity)];
+        this.senders = new UUID[messages.length];
+    }
+
+    int capacity() {
+        return messages.length;
+    }
+
+    synchronized void add(UUID sender, Component message) {
+        int slot = (int) (written % messages.length);
+        messages[slot] = message;
+        senders[slot] = sender;
+        written++;
+    }
+
+    /**
+     * Returns up to {@code limit} of the newest messages, oldest first, skipping senders in {@code hidden}.
+     */
+    synchronized List<Component> recent(int limit, Set<UUID> hidden) {
+        int available = (int) Math.min(written, messages.length);
+        List<Component> result = new ArrayList<>(Math.min(limit, available));
+        long start = written - available;
+        int skip = 0;
+        if (!hidden.isEmpty()) {
+            int visible = 0;
+            for (long i = start; i < written; i++) {
+                if (!hidden.contains(senders[(int) (i % messages.length)])) {
+                    visible++;
+                }
+            }
+            skip = Math.max(0, visible - limit);
+        } else {
+            start = Math.max(start, written - limit);
+        }
+        for (long i = start; i < written; i++) {
+            int slot = (int) (i % messages.length);
+            if (hidden.contains(senders[slot])) {
+                continue;
+            }
+            if (skip > 0) {
+                skip--;
+                continue;
+            }
+            result.add(messages[slot]);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,45 @@
+package com.velocitychat.chat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Online player names sorted by lowercase name, so a prefix lookup is one descent into the skip list plus one step
+ * per result rather than a pass over every player.
+ */
+final class NameIndex {
+    private final ConcurrentSkipListMap<String, String> names = new ConcurrentSkipListMap<>();
+
+    void add(String name) {
+        names.put(key(name), name);
+    }
+
+    void remove(String name) {
+        names.remove(key(name), name);
+    }
+
+    boolean contains(String name) {
+        return names.containsKey(key(name));
+    }
+
+    /**
+     * Up to {@code limit} names starting with {@code prefix} (lowercase), in alphabetical order.
+     */
+    List<String> startingWith(String prefix, int limit) {
+        List<String> matches = new ArrayList<>(Math.min(limit, 16));
+        for (Map.Entry<String, String> entry : names.tailMap(prefix).entrySet()) {
+            if (matches.size() >= limit || !entry.getKey().startsWith(prefix)) {
+                break;
+            }
+            matches.add(entry.getValue());
+        }
+        return matches;
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
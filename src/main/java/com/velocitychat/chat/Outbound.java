@@ -0,0 +1,297 @@
+package com.velocitychat.chat;
+
+import com.velocitypowered.api.proxy.Player;
+import net.kyori.adventure.text.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Last step of every chat delivery: hands a component to one player, watching how each player keeps up.
+ *
+ * <p>Healthy players are sent to directly. A player whose ping is above the ping threshold is marked lagging: from
+ * then on their messages go into a bounded queue that a single drain thread feeds to them at a fixed rate. Ping is
+ * the only real backlog signal available here. {@link Player#sendMessage} just encodes the packet and hands it to
+ * the connection's event loop, and the Velocity API exposes neither channel writability nor pending bytes, so the
+ * time a send takes says nothing about the client's backlog. Send time is still tracked against the slow
+ * threshold, but it only catches sends that are slow on the proxy itself, such as heavy components or a contended
+ * connection.</p>
+ *
+ * <p>When the queue is full, the oldest channel chat is dropped first. Alerts and private messages are kept past
+ * that, up to twice the capacity; beyond that the oldest of them is dropped too, so a stalled client receiving a
+ * stream of alerts or private messages still costs bounded memory. Every drop is counted. Once the queue is empty
+ * and the player is healthy again, they go back to direct delivery.</p>
+ */
+final class Outbound {
+    private static final long DRAIN_INTERVAL_MILLIS = 50L;
+    private static final Outbound DIRECT = new Outbound();
+
+    private final boolean enabled;
+    private final long slowNanos;
+    private final long pingThresholdMillis;
+    private final int capacity;
+    private final int drainBatch;
+    private final Map<UUID, Outbox> outboxes = new ConcurrentHashMap<>();
+    private final Set<Outbox> lagging = ConcurrentHashMap.newKeySet();
+    private final LongAdder dropped = new LongAdder();
+    private final ScheduledExecutorService drainer;
+
+    Outbound(long slowSendMicros, long pingThresholdMillis, int capacity, int drainPerSecond) {
+        this.enabled = true;
+        this.slowNanos = Math.max(1L, slowSendMicros) * 1000L;
+        this.pingThresholdMillis = pingThresholdMillis;
+        this.capacity = Math.max(1, capacity);
+        this.drainBatch = (int) Math.max(1L, drainPerSecond * DRAIN_INTERVAL_MILLIS / 1000L);
+        this.drainer = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "VelocityChat Outbox");
+            thread.setDaemon(true);
+            return thread;
+        });
+        drainer.scheduleWithFixedDelay(this::drain, DRAIN_INTERVAL_MILLIS, DRAIN_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private Outbound() {
+        this.enabled = false;
+        this.slowNanos = Long.MAX_VALUE;
+        this.pingThresholdMillis = 0L;
+        this.capacity = 0;
+        this.drainBatch = 0;
+        this.drainer = null;
+    }
+
+    /**
+     * Sends straight to every player without tracking; used before the plugin has started and when disabled.
+     */
+    static Outbound direct() {
+        return DIRECT;
+    }
+
+    /**
+     * Starts tracking a player. Players never registered, or already removed, are sent to directly.
+     */
+    void register(Player player) {
+        if (enabled) {
+            outboxes.put(player.getUniqueId(), new Outbox(player));
+        }
+    }
+
+    void remove(UUID player) {
+        Outbox box = outboxes.remove(player);
+        if (box != null) {
+            lagging.remove(box);
+            synchronized (box) {
+                box.queue.clear();
+            }
+        }
+    }
+
+    /**
+     * Delivers {@code component} to {@code player}, or queues it behind their backlog. {@code priority} messages
+     * (alerts and private messages) are only dropped once the queue reaches twice its capacity.
+     */
+    void send(Player player, Component component, boolean priority) {
+        Outbox box = enabled ? outboxes.get(player.getUniqueId()) : null;
+        if (box == null) {
+            player.sendMessage(component);
+            return;
+        }
+        synchronized (box) {
+            if (box.lagging || pingTooHigh(player)) {
+                markLagging(box);
+                enqueue(box, component, priority);
+                return;
+            }
+        }
+        long start = System.nanoTime();
+        player.sendMessage(component);
+        long cost = System.nanoTime() - start;
+        synchronized (box) {
+            box.recordCost(cost);
+            if (box.costNanos > slowNanos) {
+                markLagging(box);
+            }
+        }
+    }
+
+    long getDropped() {
+        return dropped.sum();
+    }
+
+    int getLaggingCount() {
+        return lagging.size();
+    }
+
+    /**
+     * Messages waiting in all lagging players' queues.
+     */
+    int getQueued() {
+        int queued = 0;
+        for (Outbox box : lagging) {
+            synchronized (box) {
+                queued += box.queue.size();
+            }
+        }
+        return queued;
+    }
+
+    /**
+     * Lagging players with the longest queues first.
+     */
+    List<LaggingRecipient> laggingRecipients(int limit) {
+        List<LaggingRecipient> snapshot = new ArrayList<>();
+        for (Outbox box : lagging) {
+            synchronized (box) {
+                snapshot.add(new LaggingRecipient(box.player.getUsername(), box.queue.size(), box.dropped,
+                        box.costNanos, box.player.getPing()));
+            }
+        }
+        snapshot.sort(Comparator.comparingInt(LaggingRecipient::getQueued).reversed());
+        return snapshot.size() > limit ? snapshot.subList(0, limit) : snapshot;
+    }
+
+    void shutdown() {
+        if (drainer != null) {
+            drainer.shutdownNow();
+        }
+        lagging.clear();
+        outboxes.clear();
+    }
+
+    private boolean pingTooHigh(Player player) {
+        return pingThresholdMillis > 0 && player.getPing() > pingThresholdMillis;
+    }
+
+    private void markLagging(Outbox box) {
+        if (!box.lagging) {
+            box.lagging = true;
+            lagging.add(box);
+        }
+    }
+
+    private void enqueue(Outbox box, Component component, boolean priority) {
+        if (box.queue.size() >= capacity) {
+            if (box.dropOldestChat()) {
+                dropped.increment();
+            } else if (!priority) {
+                // Everything queued is an alert or private message; the new chat line is the one to go.
+                box.dropped++;
+                dropped.increment();
+                return;
+            }
+        }
+        if (box.queue.size() >= capacity * 2) {
+            // Only priority traffic can fill the queue this far; past the hard cap its oldest entry goes.
+            Pending oldest = box.queue.poll();
+            if (oldest.priority) {
+                box.priorityQueued--;
+            }
+            box.dropped++;
+            dropped.increment();
+        }
+        box.queue.add(new Pending(component, priority));
+        if (priority) {
+            box.priorityQueued++;
+        }
+    }
+
+    private void drain() {
+        for (Outbox box : lagging) {
+            try {
+                drain(box);
+            } catch (RuntimeException ignored) {
+                // A player disconnecting mid-send must not stop the drain thread.
+            }
+        }
+    }
+
+    private void drain(Outbox box) {
+        List<Component> batch = new ArrayList<>(drainBatch);
+        synchronized (box) {
+            while (batch.size() < drainBatch && !box.queue.isEmpty()) {
+                Pending next = box.queue.poll();
+                if (next.priority) {
+                    box.priorityQueued--;
+                }
+                batch.add(next.component);
+            }
+        }
+        for (Component component : batch) {
+            long start = System.nanoTime();
+            box.player.sendMessage(component);
+            long cost = System.nanoTime() - start;
+            synchronized (box) {
+                box.recordCost(cost);
+            }
+        }
+        synchronized (box) {
+            if (!box.queue.isEmpty()) {
+                return;
+            }
+            if (batch.isEmpty()) {
+                // Nothing left to measure; let an old slow reading decay instead of pinning the player.
+                box.costNanos >>= 1;
+            }
+            if (box.costNanos <= slowNanos && !pingTooHigh(box.player)) {
+                box.lagging = false;
+                lagging.remove(box);
+            }
+        }
+    }
+
+    private static final class Outbox {
+        private final Player player;
+        private final ArrayDeque<Pending> queue = new ArrayDeque<>();
+        private int priorityQueued;
+        /** Moving average of send time, weighted 1/8 towards the newest send. */
+        private long costNanos;
+        private long dropped;
+        private boolean lagging;
+
+        private Outbox(Player player) {
+            this.player = player;
+        }
+
+        private void recordCost(long nanos) {
+            costNanos += (nanos - costNanos) >> 3;
+        }
+
+        /**
+         * Drops the oldest queued chat line; {@code false} if everything queued is priority traffic.
+         */
+        private boolean dropOldestChat() {
+            if (priorityQueued == queue.size()) {
+                return false;
+            }
+            Iterator<Pending> it = queue.iterator();
+            while (it.hasNext()) {
+                if (!it.next().priority) {
+                    it.remove();
+                    dropped++;
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class Pending {
+        private final Component component;
+        private final boolean priority;
+
+        private Pending(Component component, boolean priority) {
+            this.component = component;
+            this.priority = priority;
+        }
+    }
+}
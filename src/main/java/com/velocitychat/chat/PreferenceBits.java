@@ -0,0 +1,114 @@
+package com.velocitychat.chat;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A player's speak channel and listening flags packed into one {@code long}. Bit {@code n} is set while the player
+ * listens to the channel with ordinal {@code n}; the speak channel's ordinal sits above those bits.
+ *
+ * <p>Words are boxed through a small shared table, so players with the same settings, including everyone still on
+ * the defaults, share one {@link Long} and a player's preferences usually cost no allocation of their own.</p>
+ */
+final class PreferenceBits {
+    private static final int SPEAK_SHIFT = ChatChannel.MAX_CHANNELS;
+    private static final long LISTEN_MASK = (1L << SPEAK_SHIFT) - 1;
+    /** Distinct words worth sharing; past this, unusual combinations are boxed individually. */
+    private static final int MAX_SHARED = 1024;
+    private static final Map<Long, Long> SHARED = new ConcurrentHashMap<>();
+
+    /** Speaking in server chat and listening to nothing else. */
+    static final Long DEFAULT = box(of(ChatChannel.SERVER, 0L));
+
+    private PreferenceBits() {
+    }
+
+    static Long box(long word) {
+        Long shared = SHARED.get(word);
+        if (shared != null) {
+            return shared;
+        }
+        Long boxed = word;
+        if (SHARED.size() < MAX_SHARED) {
+            Long raced = SHARED.putIfAbsent(word, boxed);
+            return raced != null ? raced : boxed;
+        }
+        return boxed;
+    }
+
+    static long of(ChatChannel speak, long listening) {
+        return ((long) speak.ordinal() << SPEAK_SHIFT) | (listening & LISTEN_MASK);
+    }
+
+    static ChatChannel speak(long word) {
+        return ChatChannel.byOrdinal((int) (word >>> SPEAK_SHIFT));
+    }
+
+    static boolean isListening(long word, ChatChannel channel) {
+        return (word & bit(channel)) != 0;
+    }
+
+    static long listeningBits(long word) {
+        return word & LISTEN_MASK;
+    }
+
+    static long withSpeak(long word, ChatChannel speak) {
+        return of(speak, word);
+    }
+
+    /**
+     * Turns one channel on or off. Turning off the channel the player speaks in moves them to server chat.
+     */
+    static long withListening(long word, ChatChannel channel, boolean enable) {
+        if (enable) {
+            return word | bit(channel);
+        }
+        ChatChannel speak = speak(word);
+        return of(speak == channel ? ChatChannel.SERVER : speak, word & ~bit(channel));
+    }
+
+    /**
+     * Turns off every channel in {@code bits}, moving the player to server chat if they spoke in one of them.
+     */
+    static long withoutListening(long word, long bits) {
+        ChatChannel speak = speak(word);
+        return of((bits & bit(speak)) != 0 ? ChatChannel.SERVER : speak, word & ~bits);
+    }
+
+    /**
+     * Speaks in {@code channel} and listens to it alone, or to nothing extra for server chat.
+     */
+    static long exclusive(ChatChannel channel) {
+        return of(channel, channel == ChatChannel.SERVER ? 0L : bit(channel));
+    }
+
+    static Set<ChatChannel> listening(long word) {
+        Set<ChatChannel> channels = new LinkedHashSet<>();
+        for (long bits = listeningBits(word); bits != 0; bits &= bits - 1) {
+            channels.add(ChatChannel.byOrdinal(Long.numberOfTrailingZeros(bits)));
+        }
+        return channels;
+    }
+
+    /**
+     * The fields that differ between two words, as a mask for {@link #merge}: the listening bits that changed, plus
+     * the whole speak field if the speak channel changed.
+     */
+    static long changed(long before, long after) {
+        long diff = before ^ after;
+        return (diff & LISTEN_MASK) | ((diff & ~LISTEN_MASK) != 0 ? ~LISTEN_MASK : 0L);
+    }
+
+    /**
+     * Takes the fields in {@code keep} from {@code live} and every other field from {@code restored}.
+     */
+    static long merge(long live, long restored, long keep) {
+        return (live & keep) | (restored & ~keep);
+    }
+
+    static long bit(ChatChannel channel) {
+        return 1L << channel.ordinal();
+    }
+}
@@ -0,0 +1,125 @@
+package com.velocitychat.chat;
+
+import com.velocitychat.config.RateLimit;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-player token buckets for each broadcast channel and for private messages.
+ *
+ * <p>Each bucket is a single {@code long} holding the last refill time and the remaining tokens (in thousandths),
+ * updated with compare-and-set, so checks never lock and never allocate once a player's session exists.</p>
+ */
+final class RateLimiter {
+    static final int PRIVATE = 0;
+
+    private static final int TOKEN_BITS = 22;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long MILLI = 1000L;
+    private static final long MAX_CAPACITY = TOKEN_MASK / MILLI;
+
+    private final long epoch = System.currentTimeMillis();
+    private final Map<UUID, Session> sessions = new ConcurrentHashMap<>();
+    private final LongAdder[] rejected = new LongAdder[ChatChannel.MAX_CHANNELS + 1];
+
+    RateLimiter() {
+        for (int i = 0; i < rejected.length; i++) {
+            rejected[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * The bucket for {@code channel}; bucket {@link #PRIVATE} is for private messages.
+     */
+    static int slot(ChatChannel channel) {
+        return channel.ordinal() + 1;
+    }
+
+    /**
+     * Takes one token from {@code player}'s bucket {@code slot} (from {@link #slot} or {@link #PRIVATE}).
+     */
+    boolean tryAcquire(UUID player, String name, int slot, RateLimit limit) {
+        long capacity = Math.min(Math.max(1, limit.getCapacity()), MAX_CAPACITY) * MILLI;
+        Session session = sessions.computeIfAbsent(player, id -> new Session(name, null));
+        if (slot >= session.states.length()) {
+            // A channel registered by a config reload after this session began.
+            session = sessions.compute(player, (id, old) ->
+                    old == null || slot >= old.states.length() ? new Session(name, old) : old);
+        }
+        AtomicLongArray states = session.states;
+        long now = System.currentTimeMillis() - epoch;
+        while (true) {
+            long state = states.get(slot);
+            long tokens;
+            if (state == 0L) {
+                tokens = capacity;
+            } else {
+                long elapsed = Math.max(0L, now - (state >>> TOKEN_BITS));
+                tokens = Math.min(capacity, (state & TOKEN_MASK) + (long) (elapsed * limit.getRefillPerSecond()));
+            }
+            if (tokens < MILLI) {
+                session.rejected.incrementAndGet(slot);
+                rejected[slot].increment();
+                return false;
+            }
+            long next = (now << TOKEN_BITS) | (tokens - MILLI);
+            if (states.compareAndSet(slot, state, next)) {
+                return true;
+            }
+        }
+    }
+
+    void remove(UUID player) {
+        sessions.remove(player);
+    }
+
+    long getRejected(int slot) {
+        return rejected[slot].sum();
+    }
+
+    /**
+     * Online players with the most rejected messages, most first.
+     */
+    List<Map.Entry<String, Long>> topOffenders(int limit) {
+        List<Map.Entry<String, Long>> offenders = new ArrayList<>();
+        sessions.values().forEach(session -> {
+            long total = 0;
+            for (int i = 0; i < session.rejected.length(); i++) {
+                total += session.rejected.get(i);
+            }
+            if (total > 0) {
+                offenders.add(Map.entry(session.name, total));
+            }
+        });
+        offenders.sort(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()));
+        return offenders.size() > limit ? offenders.subList(0, limit) : offenders;
+    }
+
+    private static final class Session {
+        private final String name;
+        private final AtomicLongArray states;
+        private final AtomicLongArray rejected;
+
+        /**
+         * A session with a bucket per registered channel, carrying over {@code previous}'s buckets if given.
+         */
+        private Session(String name, Session previous) {
+            this.name = name;
+            this.states = new AtomicLongArray(ChatChannel.count() + 1);
+            this.rejected = new AtomicLongArray(ChatChannel.count() + 1);
+            if (previous != null) {
+                for (int i = 0; i < previous.states.length(); i++) {
+                    states.set(i, previous.states.get(i));
+                    rejected.set(i, previous.rejected.get(i));
+                }
+            }
+        }
+    }
+}
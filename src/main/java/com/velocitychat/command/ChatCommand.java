@@ -2,7 +2,14 @@ package com.velocitychat.command;
 
 import com.velocitychat.chat.ChatChannel;
 import com.velocitychat.chat.ChatManager;
+import com.velocitychat.chat.ChatMetrics;
+import com.velocitychat.chat.DurationHistogram;
+import com.velocitychat.chat.LaggingRecipient;
+import com.velocitychat.config.Message;
 import com.velocitychat.config.VelocityChatConfig;
+import com.velocitychat.network.PlayerDirectory;
+import com.velocitychat.network.ProxyNetwork;
+import com.velocitychat.storage.NameRegistry;
 import com.velocitychat.util.TextFormatter;
 import com.velocitypowered.api.command.CommandSource;
 import com.velocitypowered.api.command.SimpleCommand;
@@ -10,21 +17,46 @@ import com.velocitypowered.api.proxy.Player;
 import com.velocitypowered.api.proxy.ProxyServer;
 import net.kyori.adventure.text.Component;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 public final class ChatCommand implements SimpleCommand {
-    private static final String STAFF_PERMISSION = "velocitychat.staff";
-
+    private static final List<Component> USAGE = List.of(
+            TextFormatter.colorize("&7/chat server"),
+            TextFormatter.colorize("&7/chat network [message]"),
+            TextFormatter.colorize("&7/chat staff [message]"),
+            TextFormatter.colorize("&7/chat <channel> [message]"),
+            TextFormatter.colorize("&7/chat listen <channel> [on|off]"),
+            TextFormatter.colorize("&7/chat ignore [player]"),
+            TextFormatter.colorize("&7/chat alert <message>"),
+            TextFormatter.colorize("&7/chat history [channel] [lines]"),
+            TextFormatter.colorize("&7/chat limits"),
+            TextFormatter.colorize("&7/chat stats"),
+            TextFormatter.colorize("&7/chat lag"),
+            TextFormatter.colorize("&7/chat refreshperms")
+    );
+    private static final Component LISTEN_USAGE = TextFormatter.colorize("&cUsage: /chat listen <channel> [on|off]");
+    private static final Component HISTORY_USAGE = TextFormatter.colorize("&cUsage: /chat history [channel] [lines]");
+    private static final List<String> SUBCOMMANDS = List.of("server", "network", "staff", "listen", "ignore", "alert",
+            "history", "limits", "stats", "lag", "refreshperms");
+    private static final int DEFAULT_HISTORY_LINES = 10;
+    private static final int TOP_OFFENDERS = 5;
+    private static final int TOP_LAGGING = 10;
+
+    private final Object plugin;
     private final ProxyServer proxy;
     private final ChatManager chatManager;
     private final VelocityChatConfig config;
 
-    public ChatCommand(ProxyServer proxy, ChatManager chatManager, VelocityChatConfig config) {
+    public ChatCommand(Object plugin, ProxyServer proxy, ChatManager chatManager, VelocityChatConfig config) {
+        this.plugin = plugin;
         this.proxy = proxy;
         this.chatManager = chatManager;
         this.config = config;
@@ -37,73 +69,67 @@ public final class ChatCommand implements SimpleCommand {
 
         if (args.length == 0) {
             if (source instanceof Player player) {
-                sendMessage(source, "channel-current", "&7You are currently in {channel} chat.",
-                        Map.of("channel", chatManager.getSpeakChannel(player).getDisplayName()));
+                sendMessage(source, Message.CHANNEL_CURRENT, chatManager.getSpeakChannel(player).getDisplayName());
             } else {
-                sendMessage(source, "must-be-player", "&cYou must be a player to use that command.");
+                sendMessage(source, Message.MUST_BE_PLAYER);
             }
             return;
         }
 
         switch (args[0].toLowerCase(Locale.ROOT)) {
-            case "network" -> handleNetwork(source, args);
+            case "network" -> handleChannel(source, args, ChatChannel.NETWORK);
             case "server" -> handleServer(source);
-            case "staff" -> handleStaff(source, args);
+            case "staff" -> handleChannel(source, args, ChatChannel.STAFF);
             case "listen" -> handleListen(source, args);
             case "ignore" -> handleIgnore(source, args);
             case "alert" -> handleAlert(source, args);
-            default -> sendUsage(source);
+            case "history" -> handleHistory(source, args);
+            case "limits" -> handleLimits(source);
+            case "stats" -> handleStats(source);
+            case "lag" -> handleLag(source);
+            case "refreshperms" -> handleRefreshPerms(source);
+            default -> {
+                ChatChannel custom = parseCustomChannel(args[0]);
+                if (custom != null) {
+                    handleChannel(source, args, custom);
+                } else {
+                    sendUsage(source);
+                }
+            }
         }
     }
 
     private void handleServer(CommandSource source) {
         if (!(source instanceof Player player)) {
-            sendMessage(source, "must-be-player", "&cYou must be a player to use that command.");
+            sendMessage(source, Message.MUST_BE_PLAYER);
             return;
         }
         switchChannel(player, ChatChannel.SERVER);
     }
 
-    private void handleNetwork(CommandSource source, String[] args) {
-        if (!(source instanceof Player player)) {
-            sendMessage(source, "must-be-player", "&cYou must be a player to use that command.");
-            return;
-        }
-
-        ChatChannel applied = switchChannel(player, ChatChannel.NETWORK);
-        if (applied != ChatChannel.NETWORK) {
-            return;
-        }
-
-        if (args.length > 1) {
-            String message = joinMessage(args, 1);
-            chatManager.sendNetworkMessage(player, message);
-        }
-    }
-
-    private void handleStaff(CommandSource source, String[] args) {
+    private void handleChannel(CommandSource source, String[] args, ChatChannel channel) {
         if (!(source instanceof Player player)) {
-            sendMessage(source, "must-be-player", "&cYou must be a player to use that command.");
+            sendMessage(source, Message.MUST_BE_PLAYER);
             return;
         }
-        if (!player.hasPermission(STAFF_PERMISSION)) {
-            sendMessage(source, "not-staff", "&cYou must have staff permissions to do that.");
+        if (!chatManager.canUse(player, channel)) {
+            sendMessage(player, Message.channelDenied(channel), channel.getDisplayName());
             return;
         }
-        ChatChannel applied = switchChannel(player, ChatChannel.STAFF);
-        if (applied != ChatChannel.STAFF) {
+        ChatChannel applied = switchChannel(player, channel);
+        if (applied != channel) {
             return;
         }
 
         if (args.length > 1) {
             String message = joinMessage(args, 1);
-            chatManager.sendStaffMessage(player, message);
+            chatManager.sendChannelMessage(player, message, channel);
         }
     }
 
     private void handleListen(CommandSource source, String[] args) {
         if (!(source instanceof Player player)) {
-            sendMessage(source, "must-be-player", "&cYou must be a player to use that command.");
+            sendMessage(source, Message.MUST_BE_PLAYER);
             return;
         }
         if (args.length < 2) {
@@ -117,8 +143,8 @@ public final class ChatCommand implements SimpleCommand {
             return;
         }
 
-        if (channel == ChatChannel.STAFF && !player.hasPermission(STAFF_PERMISSION)) {
-            sendMessage(player, "not-staff", "&cYou must have staff permissions to do that.");
+        if (!chatManager.canUse(player, channel)) {
+            sendMessage(player, Message.channelDenied(channel), channel.getDisplayName());
             return;
         }
 
@@ -138,12 +164,12 @@ public final class ChatCommand implements SimpleCommand {
         if (desired == null) {
             boolean current = chatManager.isListening(player, channel);
             if (!chatManager.setListening(player, channel, !current)) {
-                sendMessage(player, "not-staff", "&cYou must have staff permissions to do that.");
+                sendMessage(player, Message.channelDenied(channel), channel.getDisplayName());
                 return;
             }
         } else {
             if (!chatManager.setListening(player, channel, desired)) {
-                sendMessage(player, "not-staff", "&cYou must have staff permissions to do that.");
+                sendMessage(player, Message.channelDenied(channel), channel.getDisplayName());
                 return;
             }
         }
@@ -152,133 +178,279 @@ public final class ChatCommand implements SimpleCommand {
 
         String channelName = channel.getDisplayName();
         if (newState) {
-            sendMessage(player, "channel-listen-enabled", "&aYou will now see {channel} chat.",
-                    Map.of("channel", channelName));
+            sendMessage(player, Message.CHANNEL_LISTEN_ENABLED, channelName);
         } else {
-            sendMessage(player, "channel-listen-disabled", "&cYou will no longer see {channel} chat.",
-                    Map.of("channel", channelName));
+            sendMessage(player, Message.CHANNEL_LISTEN_DISABLED, channelName);
             if (chatManager.getSpeakChannel(player) == channel) {
-                sendMessage(player, "channel-switched.server", "&aYou are now talking in {channel} chat.",
-                        Map.of("channel", ChatChannel.SERVER.getDisplayName()));
+                sendMessage(player, Message.CHANNEL_SWITCHED_SERVER, ChatChannel.SERVER.getDisplayName());
             }
         }
     }
 
     private void handleIgnore(CommandSource source, String[] args) {
         if (!(source instanceof Player player)) {
-            sendMessage(source, "must-be-player", "&cYou must be a player to use that command.");
+            sendMessage(source, Message.MUST_BE_PLAYER);
             return;
         }
 
         if (args.length == 1) {
             Set<String> ignored = chatManager.getIgnoredNames(player);
             if (ignored.isEmpty()) {
-                sendMessage(player, "ignored-list-empty", "&7You are not ignoring anyone.");
+                sendMessage(player, Message.IGNORED_LIST_EMPTY);
             } else {
                 String list = String.join(", ", ignored);
-                sendMessage(player, "ignored-list", "&7You are ignoring: {list}", Map.of("list", list));
+                sendMessage(player, Message.IGNORED_LIST, list);
             }
             return;
         }
 
         String targetName = args[1];
         if (player.getUsername().equalsIgnoreCase(targetName)) {
-            sendMessage(player, "cannot-ignore-self", "&cYou cannot ignore yourself.");
+            sendMessage(player, Message.CANNOT_IGNORE_SELF);
             return;
         }
 
         Optional<Player> targetOpt = proxy.getPlayer(targetName);
-        if (targetOpt.isEmpty()) {
-            sendMessage(player, "player-not-found", "&cCould not find player named {target}.",
-                    Map.of("target", targetName));
-            return;
-        }
-
-        Player target = targetOpt.get();
-
-        if (target.hasPermission(STAFF_PERMISSION)) {
-            sendMessage(player, "cannot-ignore-staff", "&cYou cannot ignore staff members.");
-            return;
+        boolean nowIgnoring;
+        String resolvedName;
+        if (targetOpt.isPresent()) {
+            Player target = targetOpt.get();
+            if (chatManager.isStaff(target)) {
+                sendMessage(player, Message.CANNOT_IGNORE_STAFF);
+                return;
+            }
+            nowIgnoring = chatManager.toggleIgnore(player, target);
+            resolvedName = target.getUsername();
+        } else {
+            Optional<PlayerDirectory.Entry> remote = chatManager.findRemotePlayer(targetName);
+            if (remote.isPresent()) {
+                if (remote.get().isStaff()) {
+                    sendMessage(player, Message.CANNOT_IGNORE_STAFF);
+                    return;
+                }
+                nowIgnoring = chatManager.toggleIgnore(player, remote.get().getId(), remote.get().getName());
+                resolvedName = remote.get().getName();
+            } else {
+                // Offline players' permissions are unknown, so the staff check only applies to online targets.
+                Optional<NameRegistry.Entry> known = chatManager.findKnownPlayer(targetName);
+                if (known.isPresent() && !known.get().getId().equals(player.getUniqueId())) {
+                    nowIgnoring = chatManager.toggleIgnore(player, known.get().getId(), known.get().getName());
+                    resolvedName = known.get().getName();
+                } else {
+                    // A name already on the list can always be removed, even if the registry no longer has it.
+                    Optional<Map.Entry<UUID, String>> listed = chatManager.findIgnored(player, targetName);
+                    if (listed.isEmpty()) {
+                        sendMessage(player, Message.PLAYER_NOT_FOUND, targetName);
+                        return;
+                    }
+                    nowIgnoring = chatManager.toggleIgnore(player, listed.get().getKey(), listed.get().getValue());
+                    resolvedName = listed.get().getValue();
+                }
+            }
         }
 
-        boolean nowIgnoring = chatManager.toggleIgnore(player, target);
         if (nowIgnoring) {
-            sendMessage(player, "ignored-add", "&eYou are now ignoring {target}.",
-                    Map.of("target", target.getUsername()));
+            sendMessage(player, Message.IGNORED_ADD, resolvedName);
         } else {
-            sendMessage(player, "ignored-remove", "&eYou are no longer ignoring {target}.",
-                    Map.of("target", target.getUsername()));
+            sendMessage(player, Message.IGNORED_REMOVE, resolvedName);
         }
     }
 
     private void handleAlert(CommandSource source, String[] args) {
-        if (!source.hasPermission(STAFF_PERMISSION)) {
-            sendMessage(source, "not-staff", "&cYou must have staff permissions to do that.");
+        if (!chatManager.isStaff(source)) {
+            sendMessage(source, Message.NOT_STAFF);
             return;
         }
         if (args.length < 2) {
-            sendMessage(source, "message-needed", "&cYou must provide a message.");
+            sendMessage(source, Message.MESSAGE_NEEDED);
             return;
         }
 
         String message = String.join(" ", java.util.Arrays.copyOfRange(args, 1, args.length));
         chatManager.sendAlert(source, message);
-        sendMessage(source, "alert-sent", "&aAlert sent to the network.");
+        sendMessage(source, Message.ALERT_SENT);
     }
 
-    private void sendUsage(CommandSource source) {
-        List<Component> lines = List.of(
-                TextFormatter.colorize("&7/chat server"),
-                TextFormatter.colorize("&7/chat network [message]"),
-                TextFormatter.colorize("&7/chat staff [message]"),
-                TextFormatter.colorize("&7/chat listen <network|staff> [on|off]"),
-                TextFormatter.colorize("&7/chat ignore [player]"),
-                TextFormatter.colorize("&7/chat alert <message>")
-        );
-        lines.forEach(source::sendMessage);
+    private void handleHistory(CommandSource source, String[] args) {
+        if (!(source instanceof Player player)) {
+            sendMessage(source, Message.MUST_BE_PLAYER);
+            return;
+        }
+
+        ChatChannel channel = chatManager.getSpeakChannel(player);
+        if (channel == ChatChannel.SERVER) {
+            channel = ChatChannel.NETWORK;
+        }
+        int limit = DEFAULT_HISTORY_LINES;
+        for (int i = 1; i < args.length; i++) {
+            ChatChannel parsed = parseToggleChannel(args[i]);
+            if (parsed != null) {
+                channel = parsed;
+                continue;
+            }
+            try {
+                limit = Integer.parseInt(args[i]);
+            } catch (NumberFormatException ex) {
+                player.sendMessage(HISTORY_USAGE);
+                return;
+            }
+        }
+        if (!chatManager.canUse(player, channel)) {
+            sendMessage(player, Message.channelDenied(channel), channel.getDisplayName());
+            return;
+        }
+
+        limit = Math.max(1, Math.min(limit, chatManager.getHistoryCapacity()));
+        List<Component> lines = chatManager.getHistory(player, channel, limit);
+        if (lines.isEmpty()) {
+            sendMessage(player, Message.HISTORY_EMPTY, channel.getDisplayName());
+            return;
+        }
+        sendMessage(player, Message.HISTORY_HEADER, String.valueOf(lines.size()), channel.getDisplayName());
+        lines.forEach(player::sendMessage);
     }
 
-    private String joinMessage(String[] args, int start) {
-        return String.join(" ", java.util.Arrays.copyOfRange(args, start, args.length));
+    private void handleLimits(CommandSource source) {
+        if (!chatManager.isStaff(source)) {
+            sendMessage(source, Message.NOT_STAFF);
+            return;
+        }
+        sendMessage(source, Message.RATE_LIMIT_SUMMARY,
+                String.valueOf(chatManager.getRateLimited(ChatChannel.NETWORK)),
+                String.valueOf(chatManager.getRateLimited(ChatChannel.STAFF)),
+                String.valueOf(chatManager.getPrivateRateLimited()));
+        for (ChatChannel channel : config.getCustomChannels()) {
+            sendMessage(source, Message.RATE_LIMIT_CHANNEL, channel.getDisplayName(),
+                    String.valueOf(chatManager.getRateLimited(channel)));
+        }
+        chatManager.getRateLimitOffenders(TOP_OFFENDERS).forEach(entry ->
+                sendMessage(source, Message.RATE_LIMIT_ENTRY, entry.getKey(), String.valueOf(entry.getValue())));
+    }
+
+    private void handleStats(CommandSource source) {
+        if (!chatManager.isStaff(source)) {
+            sendMessage(source, Message.NOT_STAFF);
+            return;
+        }
+        ChatMetrics metrics = chatManager.getMetrics();
+        List<ChatChannel> channels = new ArrayList<>(List.of(ChatChannel.NETWORK, ChatChannel.STAFF));
+        channels.addAll(config.getCustomChannels());
+        for (ChatChannel channel : channels) {
+            long[] dispatch = metrics.getDispatch(channel).snapshot();
+            sendMessage(source, Message.STATS_CHANNEL,
+                    channel.getDisplayName(),
+                    String.valueOf(metrics.getMessages(channel)),
+                    String.format(Locale.ROOT, "%.1f", metrics.getAverageAudience(channel)),
+                    String.valueOf(chatManager.getAudienceSize(channel)),
+                    formatDuration(DurationHistogram.percentile(dispatch, 0.50)),
+                    formatDuration(DurationHistogram.percentile(dispatch, 0.99)),
+                    String.valueOf(metrics.getBusy(channel)));
+        }
+        sendMessage(source, Message.STATS_TOTALS,
+                String.valueOf(metrics.getPrivateMessages()),
+                String.valueOf(metrics.getAlerts()),
+                String.valueOf(chatManager.getDuplicatesSuppressed()),
+                String.valueOf(chatManager.getDispatchBacklog()));
+        sendMessage(source, Message.STATS_MEMORY,
+                String.valueOf(chatManager.getTrackedPlayers()),
+                String.valueOf(chatManager.getIgnoreListCount()),
+                String.valueOf(chatManager.getConversationCount()));
+        ProxyNetwork network = chatManager.getNetwork();
+        if (network != null) {
+            sendMessage(source, Message.STATS_NETWORK,
+                    String.valueOf(network.getSent()),
+                    String.valueOf(network.getReceived()),
+                    String.valueOf(network.getDropped()),
+                    String.valueOf(network.getDirectory().size()));
+        }
+    }
+
+    private void handleLag(CommandSource source) {
+        if (!chatManager.isStaff(source)) {
+            sendMessage(source, Message.NOT_STAFF);
+            return;
+        }
+        int count = chatManager.getLaggingCount();
+        if (count == 0) {
+            sendMessage(source, Message.LAG_NONE);
+            return;
+        }
+        sendMessage(source, Message.LAG_HEADER,
+                String.valueOf(count),
+                String.valueOf(chatManager.getRecipientBacklog()),
+                String.valueOf(chatManager.getRecipientDropped()));
+        for (LaggingRecipient recipient : chatManager.getLaggingRecipients(TOP_LAGGING)) {
+            sendMessage(source, Message.LAG_ENTRY,
+                    recipient.getName(),
+                    String.valueOf(recipient.getQueued()),
+                    String.valueOf(recipient.getDropped()),
+                    String.format(Locale.ROOT, "%.2fms", recipient.getSendNanos() / 1_000_000.0),
+                    String.valueOf(recipient.getPing()));
+        }
     }
 
-    private void sendMessage(CommandSource target, String key, String def) {
-        sendMessage(target, key, def, Map.of());
+    /**
+     * Formats a histogram bucket bound, which is an upper limit rather than an exact value.
+     */
+    private static String formatDuration(long nanos) {
+        if (nanos < 0) {
+            return "-";
+        }
+        if (nanos == Long.MAX_VALUE) {
+            return ">" + (DurationHistogram.upperBoundNanos(DurationHistogram.bucketCount() - 2) / 1_000_000L) + "ms";
+        }
+        return String.format(Locale.ROOT, "<=%sms", BigDecimal.valueOf(nanos, 6).stripTrailingZeros().toPlainString());
     }
 
-    private void sendMessage(CommandSource target, String key, String def, Map<String, String> placeholders) {
-        String template = config.message(key, def);
-        for (Map.Entry<String, String> entry : placeholders.entrySet()) {
-            template = template.replace("{" + entry.getKey() + "}", entry.getValue());
+    private void handleRefreshPerms(CommandSource source) {
+        if (source instanceof Player player && !chatManager.isStaff(player)) {
+            chatManager.refreshStaff(player);
+            sendMessage(player, Message.PERMISSIONS_REFRESHED);
+            return;
         }
-        target.sendMessage(TextFormatter.colorize(template));
+        int refreshed = chatManager.refreshStaff();
+        sendMessage(source, Message.PERMISSIONS_REFRESHED_ALL, String.valueOf(refreshed));
+    }
+
+    private void sendUsage(CommandSource source) {
+        USAGE.forEach(source::sendMessage);
+    }
+
+    private String joinMessage(String[] args, int start) {
+        return String.join(" ", java.util.Arrays.copyOfRange(args, start, args.length));
+    }
+
+    private void sendMessage(CommandSource target, Message message, String... values) {
+        target.sendMessage(config.message(target, message, values));
     }
 
     @Override
     public List<String> suggest(Invocation invocation) {
+        CommandSource source = invocation.source();
         String[] args = invocation.arguments();
         if (args.length == 0) {
-            return List.of("server", "network", "staff", "listen", "ignore", "alert");
+            List<String> options = new ArrayList<>(SUBCOMMANDS);
+            options.addAll(usableCustomChannels(source));
+            return options;
         }
         if (args.length == 1) {
             String prefix = args[0].toLowerCase(Locale.ROOT);
-            return List.of("server", "network", "staff", "listen", "ignore", "alert").stream()
+            List<String> options = new ArrayList<>(SUBCOMMANDS);
+            options.addAll(usableCustomChannels(source));
+            return options.stream()
                     .filter(option -> option.startsWith(prefix))
                     .collect(java.util.stream.Collectors.toList());
         }
         if (args.length == 2 && "ignore".equalsIgnoreCase(args[0])) {
-            String prefix = args[1].toLowerCase(Locale.ROOT);
-            List<String> matches = new ArrayList<>();
-            proxy.getAllPlayers().forEach(player -> {
-                String name = player.getUsername();
-                if (name.toLowerCase(Locale.ROOT).startsWith(prefix)) {
-                    matches.add(name);
-                }
-            });
-            return matches;
+            return chatManager.suggestPlayerNames(args[1]);
         }
-        if (args.length == 2 && "listen".equalsIgnoreCase(args[0])) {
-            return List.of("network", "staff");
+        if (args.length == 2 && ("listen".equalsIgnoreCase(args[0]) || "history".equalsIgnoreCase(args[0]))) {
+            String prefix = args[1].toLowerCase(Locale.ROOT);
+            List<String> options = new ArrayList<>(List.of("network", "staff"));
+            options.addAll(usableCustomChannels(source));
+            return options.stream()
+                    .filter(option -> option.startsWith(prefix))
+                    .collect(java.util.stream.Collectors.toList());
         }
         if (args.length == 3 && "listen".equalsIgnoreCase(args[0])) {
             return List.of("on", "off");
@@ -286,18 +458,42 @@ public final class ChatCommand implements SimpleCommand {
         return List.of();
     }
 
+    /**
+     * Ids of the custom channels {@code source} may use; the console sees them all.
+     */
+    private List<String> usableCustomChannels(CommandSource source) {
+        List<String> ids = new ArrayList<>();
+        for (ChatChannel channel : config.getCustomChannels()) {
+            if (!(source instanceof Player player) || chatManager.canUse(player, channel)) {
+                ids.add(channel.name());
+            }
+        }
+        return ids;
+    }
+
+    @Override
+    public CompletableFuture<List<String>> suggestAsync(Invocation invocation) {
+        // On the proxy's plugin scheduler rather than the common pool, which other plugins and the JDK share.
+        CompletableFuture<List<String>> future = new CompletableFuture<>();
+        proxy.getScheduler().buildTask(plugin, () -> {
+            try {
+                future.complete(suggest(invocation));
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }).schedule();
+        return future;
+    }
+
     private ChatChannel switchChannel(Player player, ChatChannel channel) {
         ChatChannel current = chatManager.getSpeakChannel(player);
         if (current == channel) {
-            sendMessage(player, "channel-already", "&eYou are already chatting in {channel} chat.",
-                    Map.of("channel", channel.getDisplayName()));
+            sendMessage(player, Message.CHANNEL_ALREADY, channel.getDisplayName());
             chatManager.setSpeakChannelExclusive(player, channel);
             return channel;
         }
         ChatChannel applied = chatManager.setSpeakChannelExclusive(player, channel);
-        sendMessage(player, "channel-switched." + applied.name().toLowerCase(Locale.ROOT),
-                "&aYou are now talking in {channel} chat.",
-                Map.of("channel", applied.getDisplayName()));
+        sendMessage(player, Message.channelSwitched(applied), applied.getDisplayName());
         return applied;
     }
 
@@ -305,11 +501,24 @@ public final class ChatCommand implements SimpleCommand {
         return switch (input.toLowerCase(Locale.ROOT)) {
             case "network" -> ChatChannel.NETWORK;
             case "staff" -> ChatChannel.STAFF;
-            default -> null;
+            default -> parseCustomChannel(input);
         };
     }
 
+    /**
+     * The configured custom channel with id {@code input}, or {@code null}.
+     */
+    private ChatChannel parseCustomChannel(String input) {
+        ChatChannel channel;
+        try {
+            channel = ChatChannel.valueOf(input);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+        return !channel.isBuiltIn() && config.isChannelConfigured(channel) ? channel : null;
+    }
+
     private void sendListenUsage(Player player) {
-        player.sendMessage(TextFormatter.colorize("&cUsage: /chat listen <network|staff> [on|off]"));
+        player.sendMessage(LISTEN_USAGE);
     }
 }
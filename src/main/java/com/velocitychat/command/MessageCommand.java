@@ -1,25 +1,26 @@
 package com.velocitychat.command;
 
 import com.velocitychat.chat.ChatManager;
+import com.velocitychat.config.Message;
 import com.velocitychat.config.VelocityChatConfig;
-import com.velocitychat.util.TextFormatter;
+import com.velocitychat.network.PlayerDirectory;
 import com.velocitypowered.api.command.CommandSource;
 import com.velocitypowered.api.command.SimpleCommand;
 import com.velocitypowered.api.proxy.Player;
 import com.velocitypowered.api.proxy.ProxyServer;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
-import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 public final class MessageCommand implements SimpleCommand {
+    private final Object plugin;
     private final ProxyServer proxy;
     private final ChatManager chatManager;
     private final VelocityChatConfig config;
 
-    public MessageCommand(ProxyServer proxy, ChatManager chatManager, VelocityChatConfig config) {
+    public MessageCommand(Object plugin, ProxyServer proxy, ChatManager chatManager, VelocityChatConfig config) {
+        this.plugin = plugin;
         this.proxy = proxy;
         this.chatManager = chatManager;
         this.config = config;
@@ -31,26 +32,30 @@ public final class MessageCommand implements SimpleCommand {
         String[] args = invocation.arguments();
 
         if (args.length < 2) {
-            sendMessage(source, "message-needed", "&cYou must provide a message.");
+            sendMessage(source, Message.MESSAGE_NEEDED);
             return;
         }
 
         String targetName = args[0];
+        String message = String.join(" ", java.util.Arrays.copyOfRange(args, 1, args.length));
         Optional<Player> targetOpt = proxy.getPlayer(targetName);
         if (targetOpt.isEmpty()) {
-            sendMessage(source, "player-not-found", "&cCould not find player named {target}.",
-                    Map.of("target", targetName));
+            Optional<PlayerDirectory.Entry> remote = chatManager.findRemotePlayer(targetName);
+            if (remote.isEmpty()) {
+                sendMessage(source, Message.PLAYER_NOT_FOUND, targetName);
+                return;
+            }
+            chatManager.sendRemotePrivateMessage(source, remote.get(), message);
             return;
         }
 
         Player target = targetOpt.get();
 
         if (source instanceof Player sender && sender.getUniqueId().equals(target.getUniqueId())) {
-            sendMessage(source, "cannot-message-self", "&cYou cannot message yourself.");
+            sendMessage(source, Message.CANNOT_MESSAGE_SELF);
             return;
         }
 
-        String message = String.join(" ", java.util.Arrays.copyOfRange(args, 1, args.length));
         chatManager.sendPrivateMessage(source, target, message);
     }
 
@@ -58,33 +63,29 @@ public final class MessageCommand implements SimpleCommand {
     public List<String> suggest(Invocation invocation) {
         String[] args = invocation.arguments();
         if (args.length == 0) {
-            return proxy.getAllPlayers().stream()
-                    .map(Player::getUsername)
-                    .collect(java.util.stream.Collectors.toList());
+            return chatManager.suggestPlayerNames("");
         }
         if (args.length == 1) {
-            String prefix = args[0].toLowerCase(Locale.ROOT);
-            List<String> names = new ArrayList<>();
-            proxy.getAllPlayers().forEach(player -> {
-                String name = player.getUsername();
-                if (name.toLowerCase(Locale.ROOT).startsWith(prefix)) {
-                    names.add(name);
-                }
-            });
-            return names;
+            return chatManager.suggestPlayerNames(args[0]);
         }
         return List.of();
     }
 
-    private void sendMessage(CommandSource target, String key, String def) {
-        sendMessage(target, key, def, Map.of());
+    @Override
+    public CompletableFuture<List<String>> suggestAsync(Invocation invocation) {
+        // Same as ChatCommand: the plugin scheduler, not the shared common pool.
+        CompletableFuture<List<String>> future = new CompletableFuture<>();
+        proxy.getScheduler().buildTask(plugin, () -> {
+            try {
+                future.complete(suggest(invocation));
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }).schedule();
+        return future;
     }
 
-    private void sendMessage(CommandSource target, String key, String def, Map<String, String> placeholders) {
-        String template = config.message(key, def);
-        for (Map.Entry<String, String> entry : placeholders.entrySet()) {
-            template = template.replace("{" + entry.getKey() + "}", entry.getValue());
-        }
-        target.sendMessage(TextFormatter.colorize(template));
+    private void sendMessage(CommandSource target, Message message, String... values) {
+        target.sendMessage(config.message(target, message, values));
     }
 }
@@ -1,14 +1,14 @@
 package com.velocitychat.command;
 
 import com.velocitychat.chat.ChatManager;
+import com.velocitychat.config.Message;
 import com.velocitychat.config.VelocityChatConfig;
-import com.velocitychat.util.TextFormatter;
+import com.velocitychat.network.PlayerDirectory;
 import com.velocitypowered.api.command.CommandSource;
 import com.velocitypowered.api.command.SimpleCommand;
 import com.velocitypowered.api.proxy.Player;
 
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 
 public final class ReplyCommand implements SimpleCommand {
@@ -26,43 +26,41 @@ public final class ReplyCommand implements SimpleCommand {
         String[] args = invocation.arguments();
 
         if (!(source instanceof Player player)) {
-            sendMessage(source, "must-be-player", "&cYou must be a player to use that command.");
+            sendMessage(source, Message.MUST_BE_PLAYER);
             return;
         }
 
         Optional<String> lastName = chatManager.getLastConversationPartnerName(player);
         if (lastName.isEmpty()) {
-            sendMessage(player, "reply-no-target", "&cNo one has messaged you yet.");
+            sendMessage(player, Message.REPLY_NO_TARGET);
             return;
         }
 
         Optional<Player> partnerOpt = chatManager.getLastConversationPartner(player);
-        if (partnerOpt.isEmpty()) {
+        Optional<PlayerDirectory.Entry> remote = partnerOpt.isEmpty()
+                ? chatManager.getRemoteConversationPartner(player)
+                : Optional.empty();
+        if (partnerOpt.isEmpty() && remote.isEmpty()) {
             chatManager.clearLastConversation(player);
-            sendMessage(player, "reply-target-offline", "&c{target} is no longer online.",
-                    Map.of("target", lastName.get()));
+            sendMessage(player, Message.REPLY_TARGET_OFFLINE, lastName.get());
             return;
         }
 
         if (args.length == 0) {
-            sendMessage(player, "message-needed", "&cYou must provide a message.");
+            sendMessage(player, Message.MESSAGE_NEEDED);
             return;
         }
 
         String message = String.join(" ", args);
+        if (remote.isPresent()) {
+            chatManager.sendRemotePrivateMessage(player, remote.get(), message);
+            return;
+        }
         chatManager.sendPrivateMessage(player, partnerOpt.get(), message);
     }
 
-    private void sendMessage(CommandSource target, String key, String def) {
-        sendMessage(target, key, def, Map.of());
-    }
-
-    private void sendMessage(CommandSource target, String key, String def, Map<String, String> placeholders) {
-        String template = config.message(key, def);
-        for (Map.Entry<String, String> entry : placeholders.entrySet()) {
-            template = template.replace("{" + entry.getKey() + "}", entry.getValue());
-        }
-        target.sendMessage(TextFormatter.colorize(template));
+    private void sendMessage(CommandSource target, Message message, String... values) {
+        target.sendMessage(config.message(target, message, values));
     }
 
     @Override
@@ -0,0 +1,130 @@
+package com.velocitychat.config;
+
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reloads {@link VelocityChatConfig} when config.yml changes on disk.
+ *
+ * <p>File system events trigger a check right away. Some platforms only poll for events every few seconds, so the
+ * watcher also compares the file against the last applied contents every {@value #POLL_MILLIS} ms; either way an
+ * edit is live within a second. Changed contents are only applied once the file's size and modification time have
+ * held still for {@value #SETTLE_MILLIS} ms, so a save still in progress is not applied even if it happens to
+ * parse. A missing file, as between the delete and create of an editor's save, is skipped: the watcher never
+ * creates config.yml. Saves that leave the file unchanged, or unparseable, keep the current settings.</p>
+ */
+public final class ConfigWatcher {
+    private static final long POLL_MILLIS = 500L;
+    /** Editors often write a file in several steps; it must be this long without changes before it is applied. */
+    private static final long SETTLE_MILLIS = 100L;
+
+    private final VelocityChatConfig config;
+    private final Logger logger;
+    private final Path file;
+    private WatchService service;
+    private Thread thread;
+    private byte[] applied;
+
+    public ConfigWatcher(VelocityChatConfig config, Logger logger) {
+        this.config = config;
+        this.logger = logger;
+        this.file = config.getConfigPath();
+    }
+
+    public void start() throws IOException {
+        service = file.getFileSystem().newWatchService();
+        file.getParent().register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        applied = read();
+        thread = new Thread(this::run, "VelocityChat Config Watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void stop() {
+        if (thread != null) {
+            thread.interrupt();
+        }
+        if (service != null) {
+            try {
+                service.close();
+            } catch (IOException ignored) {
+                // Nothing left to release.
+            }
+        }
+    }
+
+    private void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = service.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    // Any event just cuts the wait short; the check below looks at the file itself.
+                    key.pollEvents();
+                    key.reset();
+                }
+                reloadIfChanged();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ignored) {
+            // Stopped.
+        }
+    }
+
+    private void reloadIfChanged() throws InterruptedException {
+        BasicFileAttributes before;
+        byte[] current;
+        try {
+            before = attributes();
+            current = before == null ? null : read();
+        } catch (IOException ex) {
+            logger.warn("Could not read {}: {}", file, ex.getMessage());
+            return;
+        }
+        if (current == null || Arrays.equals(current, applied)) {
+            return;
+        }
+        Thread.sleep(SETTLE_MILLIS);
+        BasicFileAttributes after;
+        try {
+            after = attributes();
+        } catch (IOException ex) {
+            return;
+        }
+        if (after == null || after.size() != before.size() || after.size() != current.length
+                || !after.lastModifiedTime().equals(before.lastModifiedTime())) {
+            // Still being written; the next pass looks again.
+            return;
+        }
+        applied = current;
+        if (config.reload(current)) {
+            logger.info("Reloaded config.yml.");
+        }
+    }
+
+    private BasicFileAttributes attributes() throws IOException {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException ex) {
+            return null;
+        }
+    }
+
+    private byte[] read() throws IOException {
+        try {
+            return Files.readAllBytes(file);
+        } catch (NoSuchFileException ex) {
+            // Mid-save by an editor that replaces the file; pick it up on the next pass.
+            return null;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.velocitychat.config;
+
+import com.velocitychat.chat.ChatChannel;
+
+/**
+ * Every player-facing line under {@code messages} in config.yml, with its built-in default and the
+ * placeholders it accepts, in the order values are passed to {@link VelocityChatConfig#message}.
+ */
+public enum Message {
+    CHANNEL_SWITCHED_SERVER("channel-switched.server", "&aYou are now talking in {channel} chat.", "channel"),
+    CHANNEL_SWITCHED_NETWORK("channel-switched.network", "&aYou are now talking in {channel} chat.", "channel"),
+    CHANNEL_SWITCHED_STAFF("channel-switched.staff", "&aYou are now talking in {channel} chat.", "channel"),
+    CHANNEL_SWITCHED_CUSTOM("channel-switched.custom", "&aYou are now talking in {channel} chat.", "channel"),
+    CHANNEL_ALREADY("channel-already", "&eYou are already chatting in {channel} chat.", "channel"),
+    CHANNEL_CURRENT("channel-current", "&7You are currently in {channel} chat.", "channel"),
+    CHANNEL_LISTEN_ENABLED("channel-listen-enabled", "&aYou will now see {channel} chat.", "channel"),
+    CHANNEL_LISTEN_DISABLED("channel-listen-disabled", "&cYou will no longer see {channel} chat.", "channel"),
+    NOT_STAFF("not-staff", "&cYou must have staff permissions to do that."),
+    NO_CHANNEL_PERMISSION("no-channel-permission", "&cYou do not have access to {channel} chat.", "channel"),
+    ALERT_SENT("alert-sent", "&aAlert sent to the network."),
+    IGNORED_ADD("ignored-add", "&eYou are now ignoring {target}.", "target"),
+    IGNORED_REMOVE("ignored-remove", "&eYou are no longer ignoring {target}.", "target"),
+    IGNORED_LIST_EMPTY("ignored-list-empty", "&7You are not ignoring anyone."),
+    IGNORED_LIST("ignored-list", "&7You are ignoring: {list}", "list"),
+    CANNOT_IGNORE_SELF("cannot-ignore-self", "&cYou cannot ignore yourself."),
+    CANNOT_IGNORE_STAFF("cannot-ignore-staff", "&cYou cannot ignore staff members."),
+    MESSAGE_NEEDED("message-needed", "&cYou must provide a message."),
+    PLAYER_NOT_FOUND("player-not-found", "&cCould not find player named {target}.", "target"),
+    IGNORED_YOU("ignored-you", "&c{target} is ignoring you.", "target"),
+    MUST_BE_PLAYER("must-be-player", "&cYou must be a player to use that command."),
+    CANNOT_MESSAGE_SELF("cannot-message-self", "&cYou cannot message yourself."),
+    SECURE_CHAT_RESTRICTED("secure-chat-restricted",
+            "&cSecure chat is enabled on this server, so VelocityChat channels are unavailable. You have been switched back to server chat."),
+    REPLY_NO_TARGET("reply-no-target", "&cNo one has messaged you yet."),
+    REPLY_TARGET_OFFLINE("reply-target-offline", "&c{target} is no longer online.", "target"),
+    HISTORY_HEADER("history-header", "&7Last {count} {channel} messages:", "count", "channel"),
+    HISTORY_EMPTY("history-empty", "&7No recent {channel} messages.", "channel"),
+    RATE_LIMITED("rate-limited", "&cYou are sending messages too quickly. Slow down!"),
+    DUPLICATE_MESSAGE("duplicate-message", "&cPlease don't repeat the same message."),
+    RATE_LIMIT_SUMMARY("rate-limit-summary", "&7Rate limited - network: {network}, staff: {staff}, private: {private}",
+            "network", "staff", "private"),
+    RATE_LIMIT_CHANNEL("rate-limit-channel", "&7Rate limited - {channel}: {count}", "channel", "count"),
+    RATE_LIMIT_ENTRY("rate-limit-entry", "&7 - {player}: {count}", "player", "count"),
+    CHAT_BUSY("chat-busy", "&cChat is busy right now, please try again in a moment."),
+    PERMISSIONS_REFRESHED("permissions-refreshed", "&aYour chat permissions have been refreshed."),
+    PERMISSIONS_REFRESHED_ALL("permissions-refreshed-all", "&aRefreshed chat permissions for {count} players.", "count"),
+    STATS_CHANNEL("stats-channel",
+            "&7{channel}: {messages} messages, avg audience {audience}, listening {listening}, dispatch p50 {p50} / p99 {p99}, busy {busy}",
+            "channel", "messages", "audience", "listening", "p50", "p99", "busy"),
+    STATS_TOTALS("stats-totals",
+            "&7Private: {private}, alerts: {alerts}, duplicates dropped: {duplicates}, dispatch backlog: {backlog}",
+            "private", "alerts", "duplicates", "backlog"),
+    STATS_MEMORY("stats-memory", "&7In memory - players: {players}, ignore lists: {ignores}, conversations: {conversations}",
+            "players", "ignores", "conversations"),
+    STATS_NETWORK("stats-network",
+            "&7Network - sent: {sent}, received: {received}, dropped: {dropped}, remote players: {remote}",
+            "sent", "received", "dropped", "remote"),
+    LAG_NONE("lag-none", "&7No players are falling behind on chat."),
+    LAG_HEADER("lag-header", "&7{count} players falling behind on chat, {queued} messages queued, {dropped} dropped:",
+            "count", "queued", "dropped"),
+    LAG_ENTRY("lag-entry", "&7 - {player}: {queued} queued, {dropped} dropped, send {send}, ping {ping}ms",
+            "player", "queued", "dropped", "send", "ping");
+
+    private final String key;
+    private final String defaultValue;
+    private final String[] placeholders;
+
+    Message(String key, String defaultValue, String... placeholders) {
+        this.key = key;
+        this.defaultValue = defaultValue;
+        this.placeholders = placeholders;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getDefaultValue() {
+        return defaultValue;
+    }
+
+    String[] placeholders() {
+        return placeholders;
+    }
+
+    public static Message channelSwitched(ChatChannel channel) {
+        if (channel == ChatChannel.SERVER) {
+            return CHANNEL_SWITCHED_SERVER;
+        }
+        if (channel == ChatChannel.NETWORK) {
+            return CHANNEL_SWITCHED_NETWORK;
+        }
+        return channel == ChatChannel.STAFF ? CHANNEL_SWITCHED_STAFF : CHANNEL_SWITCHED_CUSTOM;
+    }
+
+    /**
+     * The refusal shown to a player who may not use {@code channel}; render it with the channel's display name.
+     */
+    public static Message channelDenied(ChatChannel channel) {
+        return channel == ChatChannel.STAFF ? NOT_STAFF : NO_CHANNEL_PERMISSION;
+    }
+}
@@ -0,0 +1,54 @@
+package com.velocitychat.config;
+
+import com.velocitychat.util.ChatTemplate;
+import net.kyori.adventure.text.Component;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The player-facing lines for one language: the {@code messages} section of config.yml, or a
+ * {@code messages/<locale>.yml} overlay on top of it.
+ *
+ * <p>An overlay only compiles the lines it changes and shares every other template with the catalog it overlays,
+ * so players whose locales leave a line alone are handed the very same template, and the same pre-built component
+ * for lines without placeholders.</p>
+ */
+public final class MessageCatalog {
+    private final String locale;
+    private final Map<Message, ChatTemplate> messages;
+    private final ChatTemplate alertTemplate;
+
+    MessageCatalog(String locale, Map<Message, ChatTemplate> messages, ChatTemplate alertTemplate) {
+        this.locale = locale;
+        this.messages = Collections.unmodifiableMap(new EnumMap<>(messages));
+        this.alertTemplate = alertTemplate;
+    }
+
+    /**
+     * The overlay's file name without {@code .yml}, or {@code null} for config.yml's own messages.
+     */
+    public String getLocale() {
+        return locale;
+    }
+
+    /**
+     * Renders {@code message}; {@code values} fill its placeholders in declaration order.
+     */
+    public Component message(Message message, String... values) {
+        return messages.get(message).render(values);
+    }
+
+    /**
+     * Alert format with the prefix baked in; render with {@code (message, sender)}. Catalogs that do not change the
+     * alert return the same template as the one they overlay, so callers can group players by it.
+     */
+    public ChatTemplate getAlertTemplate() {
+        return alertTemplate;
+    }
+
+    ChatTemplate template(Message message) {
+        return messages.get(message);
+    }
+}
@@ -0,0 +1,22 @@
+package com.velocitychat.config;
+
+/**
+ * Token-bucket settings: a burst of {@code capacity} messages, refilled at {@code refillPerSecond}.
+ */
+public final class RateLimit {
+    private final int capacity;
+    private final double refillPerSecond;
+
+    RateLimit(int capacity, double refillPerSecond) {
+        this.capacity = capacity;
+        this.refillPerSecond = refillPerSecond;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public double getRefillPerSecond() {
+        return refillPerSecond;
+    }
+}
@@ -1,99 +1,143 @@
 package com.velocitychat.config;
 
 import com.velocitychat.chat.ChatChannel;
+import com.velocitychat.util.ChatTemplate;
+import com.velocitypowered.api.command.CommandSource;
+import com.velocitypowered.api.proxy.Player;
 import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import org.slf4j.Logger;
 import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.error.YAMLException;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 /**
  * Loads and exposes configuration and message templates.
  */
 public final class VelocityChatConfig {
-    private static final LegacyComponentSerializer LEGACY = LegacyComponentSerializer.legacyAmpersand();
+    private static final int MAX_CACHED_LOCALES = 256;
 
     private final Path dataDirectory;
     private final Logger logger;
 
-    private ChatChannel defaultChannel = ChatChannel.SERVER;
-    private final Map<ChatChannel, String> prefixes = new EnumMap<>(ChatChannel.class);
-    private final Map<ChatChannel, String> formats = new EnumMap<>(ChatChannel.class);
-    private final Map<String, String> messages = new HashMap<>();
-    private String alertPrefix;
-    private String alertFormat;
-    private String privateSendFormat;
-    private String privateReceiveFormat;
-    private boolean forceChannelIntercept;
+    /** Everything parsed from config.yml; replaced as a whole on reload and never modified in place. */
+    private volatile Snapshot snapshot = new Snapshot(Map.of());
 
     public VelocityChatConfig(Path dataDirectory, Logger logger) {
         this.dataDirectory = dataDirectory;
         this.logger = logger;
     }
 
-    public void reload() {
-        Path configPath = dataDirectory.resolve("config.yml");
+    /**
+     * Re-reads config.yml and publishes the result in one step, so readers see either the old settings or the new
+     * ones and never a mix. If the file cannot be read or parsed, the current settings are kept.
+     *
+     * @return whether new settings were applied
+     */
+    public boolean reload() {
+        Path configPath = getConfigPath();
         ensureDefaultConfig(configPath);
+        try (Reader reader = Files.newBufferedReader(configPath)) {
+            return apply(reader);
+        } catch (IOException ex) {
+            logger.error("Failed to read config.yml, keeping the current settings", ex);
+            return false;
+        }
+    }
+
+    /**
+     * Applies config.yml contents the caller has already read, as {@link #reload()} does. Unlike {@code reload()}
+     * this never writes the default config.yml, so a file caught mid-save cannot be replaced by the defaults.
+     */
+    boolean reload(byte[] contents) {
+        try (Reader reader = new InputStreamReader(new ByteArrayInputStream(contents), StandardCharsets.UTF_8)) {
+            return apply(reader);
+        } catch (IOException ex) {
+            logger.error("Failed to read config.yml, keeping the current settings", ex);
+            return false;
+        }
+    }
 
+    private boolean apply(Reader reader) {
         Yaml yaml = new Yaml();
         Map<String, Object> root;
 
-        try (Reader reader = Files.newBufferedReader(configPath)) {
+        try {
             Object loaded = yaml.load(reader);
             if (loaded instanceof Map<?, ?> map) {
                 root = castMap(map);
             } else {
                 root = new HashMap<>();
             }
-        } catch (IOException ex) {
-            logger.error("Failed to read config.yml", ex);
-            root = new HashMap<>();
+        } catch (YAMLException ex) {
+            logger.error("Failed to read config.yml, keeping the current settings", ex);
+            return false;
         }
 
-        loadChannels(root);
-        loadSettings(root);
-        loadMessages(root);
+        Snapshot loaded = new Snapshot(root);
+        findLocaleFiles().forEach((key, file) -> loaded.catalogs.put(key, loadCatalog(loaded, key, file)));
+        loaded.warnings.forEach(logger::warn);
+        snapshot = loaded;
+        return true;
     }
 
-    private void loadChannels(Map<String, Object> root) {
-        String defaultChannelName = string(root, "channels.default", "SERVER");
-        defaultChannel = parseChannel(defaultChannelName, ChatChannel.SERVER);
-
-        prefixes.put(ChatChannel.NETWORK, string(root, "channels.prefixes.network", "&b[Network]"));
-        prefixes.put(ChatChannel.STAFF, string(root, "channels.prefixes.staff", "&c[Staff]"));
-        prefixes.put(ChatChannel.SERVER, "");
-
-        formats.put(ChatChannel.NETWORK, string(root, "channels.formats.network", "{prefix} {player}: {message}"));
-        formats.put(ChatChannel.STAFF, string(root, "channels.formats.staff", "{prefix} {player}: {message}"));
-        formats.put(ChatChannel.SERVER, "{player}: {message}");
+    public Path getConfigPath() {
+        return dataDirectory.resolve("config.yml");
+    }
 
-        alertPrefix = string(root, "channels.alert.prefix", "&4[Alert]");
-        alertFormat = string(root, "channels.alert.format", "{prefix} {message}");
+    /**
+     * The overlays in {@code messages/}, keyed by normalised locale. They are all read and compiled by
+     * {@link #reload()}, so looking up a player's catalog never touches the disk.
+     */
+    private Map<String, Path> findLocaleFiles() {
+        Path directory = dataDirectory.resolve("messages");
+        if (!Files.isDirectory(directory)) {
+            return Map.of();
+        }
+        Map<String, Path> files = new HashMap<>();
+        try (Stream<Path> listing = Files.list(directory)) {
+            listing.forEach(file -> {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".yml") && name.length() > 4) {
+                    files.put(localeKey(name.substring(0, name.length() - 4)), file);
+                }
+            });
+        } catch (IOException ex) {
+            logger.warn("Unable to list message translations in " + directory, ex);
+        }
+        return files;
+    }
 
-        privateSendFormat = string(root, "private-messages.send", "&d[To {target}] {message}");
-        privateReceiveFormat = string(root, "private-messages.receive", "&d[From {sender}] {message}");
+    private static String localeKey(String tag) {
+        return tag.replace('-', '_').toLowerCase(Locale.ROOT);
     }
 
-    private void loadSettings(Map<String, Object> root) {
-        forceChannelIntercept = bool(root, "settings.force-channel-intercept", false);
+    private static ChatTemplate alertTemplate(String format, String prefix) {
+        return ChatTemplate.compile(format, Map.of("prefix", prefix), "message", "sender");
     }
 
-    @SuppressWarnings("unchecked")
-    private void loadMessages(Map<String, Object> root) {
-        messages.clear();
-        Map<String, Object> messageRoot = (Map<String, Object>) find(root, "messages");
-        if (messageRoot != null) {
-            flatten(messageRoot, "messages", messages);
-        }
+    private static ChatTemplate channelTemplate(String format, String prefix) {
+        return ChatTemplate.compile(format, Map.of("prefix", prefix), "player", "message", "server");
     }
 
     private void ensureDefaultConfig(Path configPath) {
@@ -119,53 +163,383 @@ public final class VelocityChatConfig {
     }
 
     public ChatChannel getDefaultChannel() {
-        return defaultChannel;
+        return snapshot.defaultChannel;
     }
 
-    public String getPrefix(ChatChannel channel) {
-        return prefixes.getOrDefault(channel, "");
+    /**
+     * Channel format with the prefix baked in; render with {@code (player, message, server)}.
+     */
+    public ChatTemplate getChannelTemplate(ChatChannel channel) {
+        return snapshot.channelTemplates.get(channel);
     }
 
-    public String getFormat(ChatChannel channel) {
-        return formats.getOrDefault(channel, "{player}: {message}");
+    /**
+     * Custom channels currently in config.yml, in the order they are listed.
+     */
+    public List<ChatChannel> getCustomChannels() {
+        return snapshot.customChannels;
     }
 
-    public String getAlertPrefix() {
-        return alertPrefix;
+    /**
+     * Whether {@code channel} has settings in the current config. Custom channels removed from config.yml stay
+     * registered but are no longer configured, and cannot be joined or spoken in.
+     */
+    public boolean isChannelConfigured(ChatChannel channel) {
+        return snapshot.channelTemplates.containsKey(channel);
     }
 
-    public String getAlertFormat() {
-        return alertFormat;
+    /**
+     * Permission needed to speak in or listen to {@code channel}, or {@code null} if anyone may. The staff channel
+     * always requires the staff permission, which is checked separately.
+     */
+    public String getChannelPermission(ChatChannel channel) {
+        return snapshot.channelPermissions.get(channel);
     }
 
-    public String getPrivateSendFormat() {
-        return privateSendFormat;
+    /**
+     * Channels new players listen to from their first login, as long as they have the channel's permission.
+     */
+    public List<ChatChannel> getDefaultListening() {
+        return snapshot.defaultListening;
     }
 
-    public String getPrivateReceiveFormat() {
-        return privateReceiveFormat;
+    /**
+     * Whether {@code channel} only reaches players in the sender's server group rather than the whole network.
+     */
+    public boolean isGroupScoped(ChatChannel channel) {
+        return snapshot.scopedChannels.contains(channel);
+    }
+
+    /**
+     * The server group backend {@code server} belongs to, or {@code null} if it is in none. Servers outside every
+     * group are treated as one group of their own.
+     */
+    public String getServerGroup(String server) {
+        return server == null ? null : snapshot.serverGroups.get(server.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Alert format with the prefix baked in; render with {@code (message, sender)}.
+     */
+    public ChatTemplate getAlertTemplate() {
+        return snapshot.defaultCatalog.getAlertTemplate();
+    }
+
+    /**
+     * Render with {@code (sender, target, message)}.
+     */
+    public ChatTemplate getPrivateSendTemplate() {
+        return snapshot.privateSendTemplate;
+    }
+
+    /**
+     * Render with {@code (sender, target, message)}.
+     */
+    public ChatTemplate getPrivateReceiveTemplate() {
+        return snapshot.privateReceiveTemplate;
     }
 
     public boolean isForceChannelIntercept() {
-        return forceChannelIntercept;
+        return snapshot.forceChannelIntercept;
+    }
+
+    public long getPermissionRefreshSeconds() {
+        return snapshot.permissionRefreshSeconds;
+    }
+
+    /**
+     * Whether edits to config.yml are picked up automatically by a {@link ConfigWatcher}.
+     */
+    public boolean isWatchConfig() {
+        return snapshot.watchConfig;
+    }
+
+    /**
+     * Most player names offered by one tab completion.
+     */
+    public int getSuggestionLimit() {
+        return snapshot.suggestionLimit;
+    }
+
+    public int getDispatchWorkers() {
+        return snapshot.dispatchWorkers;
+    }
+
+    public int getDispatchQueueCapacity() {
+        return snapshot.dispatchQueueCapacity;
+    }
+
+    /**
+     * Audience size at which fan-out is split into parallel shards; {@code 0} keeps every fan-out serial.
+     */
+    public int getParallelThreshold() {
+        return snapshot.parallelThreshold;
     }
 
-    public String message(String key, String def) {
-        return messages.getOrDefault("messages." + key, def);
+    public int getParallelShardSize() {
+        return snapshot.parallelShardSize;
     }
 
-    public Component componentMessage(String key, String def) {
-        return LEGACY.deserialize(message(key, def));
+    public int getParallelThreads() {
+        return snapshot.parallelThreads;
+    }
+
+    public boolean isSlowRecipientsEnabled() {
+        return snapshot.slowRecipientsEnabled;
+    }
+
+    /**
+     * Average send time above which a player is treated as lagging.
+     */
+    public long getSlowSendMicros() {
+        return snapshot.slowSendMicros;
+    }
+
+    /**
+     * Ping above which a player is treated as lagging; {@code 0} ignores ping.
+     */
+    public long getSlowPingThresholdMillis() {
+        return snapshot.slowPingThresholdMillis;
+    }
+
+    /**
+     * Messages held for one lagging player before old chat starts being dropped.
+     */
+    public int getRecipientQueueCapacity() {
+        return snapshot.recipientQueueCapacity;
+    }
+
+    public int getRecipientDrainPerSecond() {
+        return snapshot.recipientDrainPerSecond;
+    }
+
+    public boolean isRateLimitEnabled() {
+        return snapshot.rateLimitEnabled;
+    }
+
+    public RateLimit getChannelRateLimit(ChatChannel channel) {
+        Snapshot current = snapshot;
+        return current.channelRateLimits.getOrDefault(channel, current.privateRateLimit);
+    }
+
+    public RateLimit getPrivateRateLimit() {
+        return snapshot.privateRateLimit;
+    }
+
+    public boolean isDuplicateFilterEnabled() {
+        return snapshot.duplicateFilterEnabled;
+    }
+
+    /**
+     * Recent message fingerprints remembered per player and channel.
+     */
+    public int getDuplicateWindowSize() {
+        return snapshot.duplicateWindowSize;
+    }
+
+    public long getDuplicateWindowMillis() {
+        return snapshot.duplicateWindowMillis;
+    }
+
+    /**
+     * Messages kept per channel for {@code /chat history}.
+     */
+    public int getHistoryCapacity() {
+        return snapshot.historyCapacity;
+    }
+
+    /**
+     * Lines replayed when a player starts listening to a channel; {@code 0} disables replay.
+     */
+    public int getHistoryReplayLines() {
+        return snapshot.historyReplayLines;
+    }
+
+    public boolean isStorageEnabled() {
+        return snapshot.storageEnabled;
+    }
+
+    public long getStorageFlushIntervalMillis() {
+        return snapshot.storageFlushIntervalMillis;
+    }
+
+    /**
+     * Records appended to one bucket log before it is rewritten in compacted form.
+     */
+    public int getStorageCompactThreshold() {
+        return snapshot.storageCompactThreshold;
+    }
+
+    /**
+     * Players whose UUID and last name are remembered for offline lookups.
+     */
+    public int getNameCacheSize() {
+        return snapshot.nameCacheSize;
+    }
+
+    public boolean isNetworkEnabled() {
+        return snapshot.networkEnabled;
+    }
+
+    /**
+     * Unique name of this proxy on the chat network.
+     */
+    public String getProxyId() {
+        return snapshot.proxyId;
+    }
+
+    /**
+     * {@code tcp} or {@code in-process}.
+     */
+    public String getNetworkTransport() {
+        return snapshot.networkTransport;
+    }
+
+    public String getNetworkBind() {
+        return snapshot.networkBind;
+    }
+
+    /**
+     * Shared secret every linked proxy must prove in the connection handshake; blank to allow only the peers'
+     * addresses.
+     */
+    public String getNetworkSecret() {
+        return snapshot.networkSecret;
+    }
+
+    public List<String> getNetworkPeers() {
+        return snapshot.networkPeers;
+    }
+
+    public int getNetworkBatchSize() {
+        return snapshot.networkBatchSize;
+    }
+
+    public long getNetworkFlushIntervalMillis() {
+        return snapshot.networkFlushIntervalMillis;
+    }
+
+    public boolean isMetricsEnabled() {
+        return snapshot.metricsEnabled;
+    }
+
+    public String getMetricsBind() {
+        return snapshot.metricsBind;
+    }
+
+    /**
+     * Renders a configured message in config.yml's own language; {@code values} fill the message's placeholders in
+     * declaration order. Messages without placeholders return the same pre-built component every time.
+     */
+    public Component message(Message message, String... values) {
+        return snapshot.defaultCatalog.message(message, values);
+    }
+
+    /**
+     * Renders a configured message in {@code target}'s language, for sending to {@code target}.
+     */
+    public Component message(CommandSource target, Message message, String... values) {
+        return catalog(target).message(message, values);
+    }
+
+    /**
+     * The catalog for {@code source}: a player's client locale, and config.yml's messages for the console.
+     */
+    public MessageCatalog catalog(CommandSource source) {
+        return source instanceof Player player ? catalog(player.getEffectiveLocale()) : snapshot.defaultCatalog;
+    }
+
+    /**
+     * The catalog for {@code locale}: {@code messages/<language>_<country>.yml} if present, then
+     * {@code messages/<language>.yml}, then config.yml's messages. The answer is remembered until the next reload.
+     */
+    public MessageCatalog catalog(Locale locale) {
+        Snapshot current = snapshot;
+        if (locale == null || current.catalogs.isEmpty()) {
+            return current.defaultCatalog;
+        }
+        MessageCatalog cached = current.byLocale.get(locale);
+        if (cached != null) {
+            return cached;
+        }
+        MessageCatalog resolved = resolveCatalog(current.catalogs, locale, current.defaultCatalog);
+        // Clients choose their own locale string, so only a bounded number of distinct ones are remembered.
+        if (current.byLocale.size() < MAX_CACHED_LOCALES) {
+            current.byLocale.putIfAbsent(locale, resolved);
+        }
+        return resolved;
+    }
+
+    private static MessageCatalog resolveCatalog(Map<String, MessageCatalog> catalogs, Locale locale,
+                                                 MessageCatalog fallback) {
+        String language = localeKey(locale.getLanguage());
+        String country = localeKey(locale.getCountry());
+        if (!country.isEmpty()) {
+            MessageCatalog regional = catalogs.get(language + "_" + country);
+            if (regional != null) {
+                return regional;
+            }
+        }
+        return catalogs.getOrDefault(language, fallback);
+    }
+
+    private MessageCatalog loadCatalog(Snapshot current, String key, Path file) {
+        Map<String, Object> root;
+        try (Reader reader = Files.newBufferedReader(file)) {
+            Object loaded = new Yaml().load(reader);
+            root = loaded instanceof Map<?, ?> map ? castMap(map) : Map.of();
+        } catch (IOException | YAMLException ex) {
+            logger.error("Failed to read " + file.getFileName() + ", using the default messages for it", ex);
+            return current.defaultCatalog;
+        }
+        MessageCatalog base = current.defaultCatalog;
+        ChatTemplate alert = find(root, "channels.alert.format") == null && find(root, "channels.alert.prefix") == null
+                ? base.getAlertTemplate()
+                : alertTemplate(string(root, "channels.alert.format", current.alertFormat),
+                        string(root, "channels.alert.prefix", current.alertPrefix));
+        return new MessageCatalog(key, compileMessages(root, base, file.getFileName().toString(), current.warnings),
+                alert);
+    }
+
+    /**
+     * Compiles the lines set under {@code messages} in {@code root}; the rest come from {@code base}, or from the
+     * built-in defaults when there is no base. Keys that match no {@link Message} are reported in {@code warnings},
+     * since they would otherwise be edited without effect.
+     */
+    private static Map<Message, ChatTemplate> compileMessages(Map<String, Object> root, MessageCatalog base,
+                                                              String source, List<String> warnings) {
+        Map<String, String> raw = new HashMap<>();
+        if (find(root, "messages") instanceof Map<?, ?> messageRoot) {
+            flatten(castMap(messageRoot), "messages", raw);
+        }
+        Map<Message, ChatTemplate> compiled = new EnumMap<>(Message.class);
+        for (Message message : Message.values()) {
+            String template = raw.remove("messages." + message.getKey());
+            if (template != null) {
+                compiled.put(message, ChatTemplate.compile(template, message.placeholders()));
+            } else if (base != null) {
+                compiled.put(message, base.template(message));
+            } else {
+                compiled.put(message, ChatTemplate.compile(message.getDefaultValue(), message.placeholders()));
+            }
+        }
+        raw.keySet().stream().sorted().forEach(key -> warnings.add("Ignoring unknown message '"
+                + key.substring("messages.".length()) + "' in " + source));
+        return compiled;
     }
 
     private static ChatChannel parseChannel(String name, ChatChannel fallback) {
         try {
-            return ChatChannel.valueOf(name.toUpperCase());
+            return ChatChannel.valueOf(name);
         } catch (IllegalArgumentException ex) {
             return fallback;
         }
     }
 
+    private static String capitalize(String id) {
+        return id.substring(0, 1).toUpperCase(Locale.ROOT) + id.substring(1);
+    }
+
     private static void flatten(Map<String, Object> source, String prefix, Map<String, String> output) {
         for (Map.Entry<String, Object> entry : source.entrySet()) {
             String key = prefix + "." + entry.getKey();
@@ -207,6 +581,55 @@ public final class VelocityChatConfig {
         return value == null ? def : String.valueOf(value);
     }
 
+    private static List<String> stringList(Map<String, Object> root, String path) {
+        Object value = find(root, path);
+        if (!(value instanceof List<?> list)) {
+            return List.of();
+        }
+        List<String> result = new ArrayList<>();
+        for (Object element : list) {
+            if (element != null) {
+                result.add(String.valueOf(element));
+            }
+        }
+        return List.copyOf(result);
+    }
+
+    private static RateLimit rateLimit(Map<String, Object> root, String path, int capacity, double refill) {
+        return new RateLimit((int) Math.max(1L, number(root, path + ".capacity", capacity)),
+                Math.max(0.0, decimal(root, path + ".refill-per-second", refill)));
+    }
+
+    private static double decimal(Map<String, Object> root, String path, double def) {
+        Object value = find(root, path);
+        if (value instanceof Number number) {
+            return number.doubleValue();
+        }
+        if (value instanceof String str) {
+            try {
+                return Double.parseDouble(str.trim());
+            } catch (NumberFormatException ignored) {
+                return def;
+            }
+        }
+        return def;
+    }
+
+    private static long number(Map<String, Object> root, String path, long def) {
+        Object value = find(root, path);
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        if (value instanceof String str) {
+            try {
+                return Long.parseLong(str.trim());
+            } catch (NumberFormatException ignored) {
+                return def;
+            }
+        }
+        return def;
+    }
+
     private static boolean bool(Map<String, Object> root, String path, boolean def) {
         Object value = find(root, path);
         if (value instanceof Boolean bool) {
@@ -217,4 +640,198 @@ public final class VelocityChatConfig {
         }
         return def;
     }
+
+    private static final class Snapshot {
+        private final List<String> warnings = new ArrayList<>();
+        private final ChatChannel defaultChannel;
+        private final Map<ChatChannel, ChatTemplate> channelTemplates;
+        private final Map<ChatChannel, String> channelPermissions;
+        private final List<ChatChannel> customChannels;
+        private final List<ChatChannel> defaultListening;
+        private final Set<ChatChannel> scopedChannels;
+        /** Lower-case server name to group name. */
+        private final Map<String, String> serverGroups;
+        private final MessageCatalog defaultCatalog;
+        private final String alertFormat;
+        private final String alertPrefix;
+        /** Overlays by normalised locale, filled by {@link #reload()} before the snapshot is published. */
+        private final Map<String, MessageCatalog> catalogs = new HashMap<>();
+        /** Client locales resolved so far; several can share one catalog. */
+        private final Map<Locale, MessageCatalog> byLocale = new ConcurrentHashMap<>();
+        private final ChatTemplate privateSendTemplate;
+        private final ChatTemplate privateReceiveTemplate;
+        private final boolean forceChannelIntercept;
+        private final long permissionRefreshSeconds;
+        private final boolean watchConfig;
+        private final int suggestionLimit;
+        private final int dispatchWorkers;
+        private final int dispatchQueueCapacity;
+        private final int parallelThreshold;
+        private final int parallelShardSize;
+        private final int parallelThreads;
+        private final boolean slowRecipientsEnabled;
+        private final long slowSendMicros;
+        private final long slowPingThresholdMillis;
+        private final int recipientQueueCapacity;
+        private final int recipientDrainPerSecond;
+        private final boolean rateLimitEnabled;
+        private final Map<ChatChannel, RateLimit> channelRateLimits;
+        private final RateLimit privateRateLimit;
+        private final boolean duplicateFilterEnabled;
+        private final int duplicateWindowSize;
+        private final long duplicateWindowMillis;
+        private final int historyCapacity;
+        private final int historyReplayLines;
+        private final boolean storageEnabled;
+        private final boolean networkEnabled;
+        private final String proxyId;
+        private final String networkTransport;
+        private final String networkBind;
+        private final List<String> networkPeers;
+        private final String networkSecret;
+        private final int networkBatchSize;
+        private final long networkFlushIntervalMillis;
+        private final boolean metricsEnabled;
+        private final String metricsBind;
+        private final long storageFlushIntervalMillis;
+        private final int storageCompactThreshold;
+        private final int nameCacheSize;
+
+        private Snapshot(Map<String, Object> root) {
+            Map<ChatChannel, ChatTemplate> templates = new HashMap<>();
+            templates.put(ChatChannel.NETWORK, channelTemplate(
+                    string(root, "channels.formats.network", "{prefix} {player}: {message}"),
+                    string(root, "channels.prefixes.network", "&b[Network]")));
+            templates.put(ChatChannel.STAFF, channelTemplate(
+                    string(root, "channels.formats.staff", "{prefix} {player}: {message}"),
+                    string(root, "channels.prefixes.staff", "&c[Staff]")));
+            templates.put(ChatChannel.SERVER, channelTemplate("{player}: {message}", ""));
+            Map<ChatChannel, String> permissions = new HashMap<>();
+            putPermission(permissions, ChatChannel.NETWORK, string(root, "channels.permissions.network", ""));
+
+            this.alertFormat = string(root, "channels.alert.format", "{prefix} {message}");
+            this.alertPrefix = string(root, "channels.alert.prefix", "&4[Alert]");
+
+            this.privateSendTemplate = ChatTemplate.compile(string(root, "private-messages.send", "&d[To {target}] {message}"),
+                    "sender", "target", "message");
+            this.privateReceiveTemplate = ChatTemplate.compile(string(root, "private-messages.receive", "&d[From {sender}] {message}"),
+                    "sender", "target", "message");
+
+            this.forceChannelIntercept = bool(root, "settings.force-channel-intercept", false);
+            this.permissionRefreshSeconds = number(root, "settings.permission-refresh-seconds", 60L);
+            this.watchConfig = bool(root, "settings.watch-config", false);
+            this.suggestionLimit = (int) Math.max(1L, number(root, "settings.suggestion-limit", 50L));
+            this.dispatchWorkers = (int) Math.max(1L, number(root, "dispatch.workers", 2L));
+            this.dispatchQueueCapacity = (int) Math.max(1L, number(root, "dispatch.queue-capacity", 1024L));
+            this.parallelThreshold = (int) Math.max(0L, number(root, "dispatch.parallel-threshold", 2000L));
+            this.parallelShardSize = (int) Math.max(1L, number(root, "dispatch.parallel-shard-size", 512L));
+            long threads = number(root, "dispatch.parallel-threads", 0L);
+            this.parallelThreads = threads > 0 ? (int) threads : Runtime.getRuntime().availableProcessors();
+            this.slowRecipientsEnabled = bool(root, "slow-recipients.enabled", true);
+            this.slowSendMicros = Math.max(1L, number(root, "slow-recipients.slow-send-micros", 2000L));
+            this.slowPingThresholdMillis = Math.max(0L, number(root, "slow-recipients.ping-threshold-ms", 1000L));
+            this.recipientQueueCapacity = (int) Math.max(1L, number(root, "slow-recipients.queue-capacity", 100L));
+            this.recipientDrainPerSecond = (int) Math.max(1L, number(root, "slow-recipients.drain-per-second", 20L));
+            this.rateLimitEnabled = bool(root, "rate-limits.enabled", true);
+            Map<ChatChannel, RateLimit> rateLimits = new HashMap<>();
+            RateLimit networkLimit = rateLimit(root, "rate-limits.network", 5, 1.0);
+            rateLimits.put(ChatChannel.NETWORK, networkLimit);
+            rateLimits.put(ChatChannel.STAFF, rateLimit(root, "rate-limits.staff", 10, 2.0));
+
+            List<ChatChannel> custom = new ArrayList<>();
+            List<ChatChannel> listening = new ArrayList<>();
+            Object customRoot = find(root, "channels.custom");
+            if (customRoot instanceof Map<?, ?> definitions) {
+                // Walk the map as parsed so channels keep the order they are listed in.
+                for (Map.Entry<?, ?> definition : new LinkedHashMap<>(definitions).entrySet()) {
+                    String id = String.valueOf(definition.getKey()).toLowerCase(Locale.ROOT);
+                    Map<String, Object> section = definition.getValue() instanceof Map<?, ?> map
+                            ? castMap(map) : Map.of();
+                    ChatChannel channel;
+                    try {
+                        channel = ChatChannel.define(id, string(section, "display-name", capitalize(id)));
+                    } catch (IllegalArgumentException | IllegalStateException ex) {
+                        warnings.add("Skipping channel '" + id + "': " + ex.getMessage());
+                        continue;
+                    }
+                    custom.add(channel);
+                    templates.put(channel, channelTemplate(
+                            string(section, "format", "{prefix} {player}: {message}"),
+                            string(section, "prefix", "&7[" + channel.getDisplayName() + "]")));
+                    putPermission(permissions, channel, string(section, "permission", ""));
+                    rateLimits.put(channel, rateLimit(section, "rate-limit",
+                            networkLimit.getCapacity(), networkLimit.getRefillPerSecond()));
+                    if (bool(section, "default-listen", false)) {
+                        listening.add(channel);
+                    }
+                }
+            }
+            this.channelTemplates = Collections.unmodifiableMap(templates);
+            this.channelPermissions = Collections.unmodifiableMap(permissions);
+            this.customChannels = List.copyOf(custom);
+            this.defaultListening = List.copyOf(listening);
+
+            Set<ChatChannel> scoped = new HashSet<>();
+            for (String name : stringList(root, "server-groups.scoped-channels")) {
+                ChatChannel channel = parseChannel(name, null);
+                if (channel == null || !templates.containsKey(channel)) {
+                    warnings.add("Ignoring unknown scoped channel '" + name + "'");
+                } else if (channel == ChatChannel.SERVER) {
+                    warnings.add("Server chat is already limited to one server; ignoring it in scoped-channels");
+                } else {
+                    scoped.add(channel);
+                }
+            }
+            Map<String, String> groups = new HashMap<>();
+            Object groupRoot = find(root, "server-groups.groups");
+            if (groupRoot instanceof Map<?, ?> definitions) {
+                for (Map.Entry<?, ?> group : definitions.entrySet()) {
+                    String groupName = String.valueOf(group.getKey());
+                    List<?> servers = group.getValue() instanceof List<?> list ? list : List.of();
+                    for (Object entry : servers) {
+                        String server = String.valueOf(entry);
+                        String previous = groups.putIfAbsent(server.toLowerCase(Locale.ROOT), groupName);
+                        if (previous != null) {
+                            warnings.add("Server '" + server + "' is in groups '" + previous + "' and '" + groupName
+                                    + "'; keeping '" + previous + "'");
+                        }
+                    }
+                }
+            }
+            this.scopedChannels = Collections.unmodifiableSet(scoped);
+            this.serverGroups = Collections.unmodifiableMap(groups);
+            this.channelRateLimits = Collections.unmodifiableMap(rateLimits);
+            ChatChannel configuredDefault = parseChannel(string(root, "channels.default", "SERVER"), ChatChannel.SERVER);
+            this.defaultChannel = templates.containsKey(configuredDefault) ? configuredDefault : ChatChannel.SERVER;
+            this.privateRateLimit = rateLimit(root, "rate-limits.private", 5, 1.0);
+            this.duplicateFilterEnabled = bool(root, "duplicates.enabled", true);
+            this.duplicateWindowSize = (int) Math.max(1L, number(root, "duplicates.window-size", 4L));
+            this.duplicateWindowMillis = Math.max(0L, number(root, "duplicates.window-seconds", 30L)) * 1000L;
+            this.historyCapacity = (int) Math.max(1L, number(root, "history.capacity", 100L));
+            this.historyReplayLines = (int) Math.max(0L, number(root, "history.replay-on-listen", 0L));
+            this.storageEnabled = bool(root, "storage.enabled", true);
+            this.networkEnabled = bool(root, "network.enabled", false);
+            this.proxyId = string(root, "network.proxy-id", "proxy-1");
+            this.networkTransport = string(root, "network.transport", "tcp").toLowerCase(Locale.ROOT);
+            this.networkBind = string(root, "network.bind", "127.0.0.1:25590");
+            this.networkPeers = stringList(root, "network.peers");
+            this.networkSecret = string(root, "network.secret", "");
+            this.networkBatchSize = (int) Math.max(1L, number(root, "network.batch-size", 256L));
+            this.networkFlushIntervalMillis = Math.max(1L, number(root, "network.flush-interval-ms", 5L));
+            this.metricsEnabled = bool(root, "metrics.enabled", false);
+            this.metricsBind = string(root, "metrics.bind", "127.0.0.1:9225");
+            this.storageFlushIntervalMillis = Math.max(50L, number(root, "storage.flush-interval-ms", 1000L));
+            this.storageCompactThreshold = (int) Math.max(1L, number(root, "storage.compact-after-records", 4096L));
+            this.nameCacheSize = (int) Math.max(1L, number(root, "storage.name-cache-size", 10_000L));
+
+            this.defaultCatalog = new MessageCatalog(null, compileMessages(root, null, "config.yml", warnings),
+                    alertTemplate(alertFormat, alertPrefix));
+        }
+
+        private static void putPermission(Map<ChatChannel, String> permissions, ChatChannel channel, String node) {
+            if (!node.isBlank()) {
+                permissions.put(channel, node.trim());
+            }
+        }
+    }
 }
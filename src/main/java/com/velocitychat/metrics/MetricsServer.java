@@ -0,0 +1,183 @@
+package com.velocitychat.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.velocitychat.chat.ChatChannel;
+import com.velocitychat.chat.ChatManager;
+import com.velocitychat.chat.ChatMetrics;
+import com.velocitychat.chat.DurationHistogram;
+import com.velocitychat.network.ProxyNetwork;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves {@code /metrics} in the Prometheus text exposition format. Everything is read from counters the chat
+ * path already maintains, so a scrape costs one pass over a handful of adders and never touches the send path.
+ */
+public final class MetricsServer {
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final ChatManager chatManager;
+    private final InetSocketAddress bind;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public MetricsServer(ChatManager chatManager, InetSocketAddress bind) {
+        this.chatManager = chatManager;
+        this.bind = bind;
+    }
+
+    public void start() throws IOException {
+        server = HttpServer.create(bind, 0);
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "VelocityChat Metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/metrics", this::handle);
+        server.start();
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = render().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    /**
+     * Renders the current values in Prometheus text format.
+     */
+    public String render() {
+        ChatMetrics metrics = chatManager.getMetrics();
+        StringBuilder out = new StringBuilder(4096);
+
+        header(out, "velocitychat_channel_messages_total", "counter", "Channel messages delivered on this proxy.");
+        for (ChatChannel channel : ChatChannel.values()) {
+            sample(out, "velocitychat_channel_messages_total", channel, metrics.getMessages(channel));
+        }
+        header(out, "velocitychat_channel_recipients_total", "counter",
+                "Recipients summed over channel messages; divide by messages for the average audience.");
+        for (ChatChannel channel : ChatChannel.values()) {
+            sample(out, "velocitychat_channel_recipients_total", channel, metrics.getRecipients(channel));
+        }
+        header(out, "velocitychat_channel_busy_total", "counter",
+                "Channel messages rejected because the dispatch lane was full.");
+        for (ChatChannel channel : ChatChannel.values()) {
+            sample(out, "velocitychat_channel_busy_total", channel, metrics.getBusy(channel));
+        }
+        header(out, "velocitychat_channel_rate_limited_total", "counter", "Channel messages dropped by rate limits.");
+        for (ChatChannel channel : ChatChannel.values()) {
+            sample(out, "velocitychat_channel_rate_limited_total", channel, chatManager.getRateLimited(channel));
+        }
+        header(out, "velocitychat_channel_audience", "gauge", "Players currently listening to each channel.");
+        for (ChatChannel channel : ChatChannel.values()) {
+            sample(out, "velocitychat_channel_audience", channel, chatManager.getAudienceSize(channel));
+        }
+
+        header(out, "velocitychat_dispatch_seconds", "histogram",
+                "Time from accepting a local channel message to its last local delivery.");
+        for (ChatChannel channel : ChatChannel.values()) {
+            histogram(out, "velocitychat_dispatch_seconds", channel, metrics.getDispatch(channel));
+        }
+
+        simple(out, "velocitychat_private_messages_total", "counter", "Private messages delivered on this proxy.",
+                metrics.getPrivateMessages());
+        simple(out, "velocitychat_private_rate_limited_total", "counter", "Private messages dropped by rate limits.",
+                chatManager.getPrivateRateLimited());
+        simple(out, "velocitychat_alerts_total", "counter", "Alerts delivered on this proxy.", metrics.getAlerts());
+        simple(out, "velocitychat_duplicates_suppressed_total", "counter", "Repeated channel messages dropped.",
+                chatManager.getDuplicatesSuppressed());
+        simple(out, "velocitychat_dispatch_backlog", "gauge", "Channel messages waiting on the dispatch lanes.",
+                chatManager.getDispatchBacklog());
+        simple(out, "velocitychat_lagging_players", "gauge", "Players fed from a backlog queue because they fell behind.",
+                chatManager.getLaggingCount());
+        simple(out, "velocitychat_recipient_backlog", "gauge", "Messages queued for lagging players.",
+                chatManager.getRecipientBacklog());
+        simple(out, "velocitychat_recipient_dropped_total", "counter", "Chat lines dropped from lagging players' queues.",
+                chatManager.getRecipientDropped());
+        simple(out, "velocitychat_tracked_players", "gauge", "Players with chat preferences in memory.",
+                chatManager.getTrackedPlayers());
+        simple(out, "velocitychat_ignore_lists", "gauge", "Players with an ignore list in memory.",
+                chatManager.getIgnoreListCount());
+        simple(out, "velocitychat_conversations", "gauge", "Players with a remembered /r partner.",
+                chatManager.getConversationCount());
+
+        ProxyNetwork network = chatManager.getNetwork();
+        if (network != null) {
+            header(out, "velocitychat_network_envelopes_total", "counter", "Envelopes exchanged with other proxies.");
+            out.append("velocitychat_network_envelopes_total{direction=\"sent\"} ").append(network.getSent()).append('\n');
+            out.append("velocitychat_network_envelopes_total{direction=\"received\"} ").append(network.getReceived())
+                    .append('\n');
+            out.append("velocitychat_network_envelopes_total{direction=\"dropped\"} ").append(network.getDropped())
+                    .append('\n');
+            simple(out, "velocitychat_network_remote_players", "gauge", "Players known to be online on other proxies.",
+                    network.getDirectory().size());
+        }
+        return out.toString();
+    }
+
+    private static void header(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void simple(StringBuilder out, String name, String type, String help, long value) {
+        header(out, name, type, help);
+        out.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, ChatChannel channel, long value) {
+        out.append(name).append("{channel=\"").append(label(channel)).append("\"} ").append(value).append('\n');
+    }
+
+    private static void histogram(StringBuilder out, String name, ChatChannel channel, DurationHistogram histogram) {
+        long[] counts = histogram.snapshot();
+        long cumulative = 0;
+        for (int i = 0; i < counts.length; i++) {
+            cumulative += counts[i];
+            long bound = DurationHistogram.upperBoundNanos(i);
+            String le = bound == Long.MAX_VALUE ? "+Inf" : seconds(bound);
+            out.append(name).append("_bucket{channel=\"").append(label(channel)).append("\",le=\"").append(le)
+                    .append("\"} ").append(cumulative).append('\n');
+        }
+        out.append(name).append("_sum{channel=\"").append(label(channel)).append("\"} ")
+                .append(seconds(histogram.getSumNanos())).append('\n');
+        out.append(name).append("_count{channel=\"").append(label(channel)).append("\"} ").append(cumulative)
+                .append('\n');
+    }
+
+    private static String label(ChatChannel channel) {
+        return channel.name().toLowerCase(Locale.ROOT);
+    }
+
+    private static String seconds(long nanos) {
+        return Double.toString(nanos / 1_000_000_000.0);
+    }
+}
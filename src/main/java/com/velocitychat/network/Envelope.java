@@ -0,0 +1,177 @@
+package com.velocitychat.network;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * One event shipped between proxies. Only raw values travel; each proxy renders with its own templates.
+ */
+public final class Envelope {
+    public enum Type {
+        CHANNEL,
+        ALERT,
+        /** A player logged in to (or was refreshed on) the origin proxy. */
+        JOIN,
+        LEAVE,
+        /** Private message routed to the proxy that owns {@link #getTarget()}. */
+        PRIVATE,
+        /** Replies to {@link #PRIVATE}, sent back to the sender's proxy. */
+        PRIVATE_DELIVERED,
+        PRIVATE_IGNORED,
+        PRIVATE_OFFLINE,
+        /** Asks the receiver to send its full roster back to the origin as {@link #JOIN}s. */
+        ROSTER_REQUEST
+    }
+
+    private static final Type[] TYPES = Type.values();
+    private static final int HAS_CHANNEL = 1;
+    private static final int HAS_SENDER = 1 << 1;
+    private static final int HAS_SENDER_NAME = 1 << 2;
+    private static final int HAS_SERVER = 1 << 3;
+    private static final int HAS_MESSAGE = 1 << 4;
+    private static final int HAS_TARGET = 1 << 5;
+    private static final int HAS_TARGET_NAME = 1 << 6;
+    private static final int STAFF = 1 << 7;
+
+    private final String origin;
+    private final long sequence;
+    private final Type type;
+    private final String channel;
+    private final UUID sender;
+    private final String senderName;
+    private final String server;
+    private final String message;
+    private final UUID target;
+    private final String targetName;
+    private final boolean staff;
+
+    Envelope(String origin, long sequence, Type type, String channel, UUID sender, String senderName,
+             String server, String message, UUID target, String targetName, boolean staff) {
+        this.origin = origin;
+        this.sequence = sequence;
+        this.type = type;
+        this.channel = channel;
+        this.sender = sender;
+        this.senderName = senderName;
+        this.server = server;
+        this.message = message;
+        this.target = target;
+        this.targetName = targetName;
+        this.staff = staff;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    public UUID getSender() {
+        return sender;
+    }
+
+    public String getSenderName() {
+        return senderName;
+    }
+
+    public String getServer() {
+        return server;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public UUID getTarget() {
+        return target;
+    }
+
+    public String getTargetName() {
+        return targetName;
+    }
+
+    /**
+     * For {@link Type#JOIN}: whether the player holds the staff permission.
+     */
+    public boolean isStaff() {
+        return staff;
+    }
+
+    /**
+     * Writes everything except the origin, which is sent once per batch. A leading flag byte marks which of the
+     * optional fields follow.
+     */
+    void write(DataOutput out) throws IOException {
+        int flags = (channel != null ? HAS_CHANNEL : 0)
+                | (sender != null ? HAS_SENDER : 0)
+                | (senderName != null ? HAS_SENDER_NAME : 0)
+                | (server != null ? HAS_SERVER : 0)
+                | (message != null ? HAS_MESSAGE : 0)
+                | (target != null ? HAS_TARGET : 0)
+                | (targetName != null ? HAS_TARGET_NAME : 0)
+                | (staff ? STAFF : 0);
+        out.writeByte(type.ordinal());
+        out.writeByte(flags);
+        out.writeLong(sequence);
+        if (channel != null) {
+            out.writeUTF(channel);
+        }
+        if (sender != null) {
+            writeUuid(out, sender);
+        }
+        if (senderName != null) {
+            out.writeUTF(senderName);
+        }
+        if (server != null) {
+            out.writeUTF(server);
+        }
+        if (message != null) {
+            out.writeUTF(message);
+        }
+        if (target != null) {
+            writeUuid(out, target);
+        }
+        if (targetName != null) {
+            out.writeUTF(targetName);
+        }
+    }
+
+    static Envelope read(String origin, DataInput in) throws IOException {
+        int typeIndex = in.readUnsignedByte();
+        if (typeIndex >= TYPES.length) {
+            throw new IOException("Unknown envelope type " + typeIndex);
+        }
+        int flags = in.readUnsignedByte();
+        long sequence = in.readLong();
+        String channel = (flags & HAS_CHANNEL) != 0 ? in.readUTF() : null;
+        UUID sender = (flags & HAS_SENDER) != 0 ? readUuid(in) : null;
+        String senderName = (flags & HAS_SENDER_NAME) != 0 ? in.readUTF() : null;
+        String server = (flags & HAS_SERVER) != 0 ? in.readUTF() : null;
+        String message = (flags & HAS_MESSAGE) != 0 ? in.readUTF() : null;
+        UUID target = (flags & HAS_TARGET) != 0 ? readUuid(in) : null;
+        String targetName = (flags & HAS_TARGET_NAME) != 0 ? in.readUTF() : null;
+        return new Envelope(origin, sequence, TYPES[typeIndex], channel, sender, senderName, server, message,
+                target, targetName, (flags & STAFF) != 0);
+    }
+
+    private static void writeUuid(DataOutput out, UUID id) throws IOException {
+        out.writeLong(id.getMostSignificantBits());
+        out.writeLong(id.getLeastSignificantBits());
+    }
+
+    private static UUID readUuid(DataInput in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+}
@@ -0,0 +1,104 @@
+package com.velocitychat.network;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Connects proxies running in the same JVM that share a group name. Envelopes are handed over directly and
+ * delivered on each receiver's own thread, in publish order.
+ */
+public final class InProcessTransport implements MessageTransport {
+    private static final Map<String, Set<InProcessTransport>> GROUPS = new ConcurrentHashMap<>();
+
+    private final String group;
+    private volatile String proxyId;
+    private volatile ExecutorService inbox;
+    private volatile Receiver receiver;
+
+    public InProcessTransport(String group) {
+        this.group = group;
+    }
+
+    @Override
+    public void start(String proxyId, Receiver receiver) {
+        this.proxyId = proxyId;
+        this.receiver = receiver;
+        this.inbox = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "VelocityChat InProcess " + proxyId);
+            thread.setDaemon(true);
+            return thread;
+        });
+        Set<InProcessTransport> members = GROUPS.computeIfAbsent(group, key -> ConcurrentHashMap.newKeySet());
+        members.add(this);
+        for (InProcessTransport member : members) {
+            if (member != this) {
+                member.run(() -> member.receiver.peerConnected(proxyId));
+                run(() -> receiver.peerConnected(member.proxyId));
+            }
+        }
+    }
+
+    @Override
+    public void publish(Envelope envelope) {
+        Set<InProcessTransport> members = GROUPS.get(group);
+        if (members == null) {
+            return;
+        }
+        for (InProcessTransport member : members) {
+            if (member != this) {
+                member.deliver(envelope);
+            }
+        }
+    }
+
+    @Override
+    public void send(String target, Envelope envelope) {
+        Set<InProcessTransport> members = GROUPS.get(group);
+        if (members == null) {
+            return;
+        }
+        for (InProcessTransport member : members) {
+            if (member != this && target.equals(member.proxyId)) {
+                member.deliver(envelope);
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        Set<InProcessTransport> remaining = GROUPS.computeIfPresent(group, (key, members) -> {
+            members.remove(this);
+            return members.isEmpty() ? null : members;
+        });
+        if (remaining != null) {
+            for (InProcessTransport member : remaining) {
+                member.run(() -> member.receiver.peerDisconnected(proxyId));
+            }
+        }
+        ExecutorService executor = inbox;
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    private void deliver(Envelope envelope) {
+        run(() -> receiver.receive(envelope));
+    }
+
+    private void run(Runnable task) {
+        ExecutorService executor = inbox;
+        if (executor == null) {
+            return;
+        }
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException ignored) {
+            // Closing; the envelope is dropped like it would be on a closed socket.
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.velocitychat.network;
+
+import java.io.IOException;
+
+/**
+ * Moves envelopes between proxies. Implementations batch outgoing envelopes and never relay what they receive;
+ * loop prevention and de-duplication are handled by {@link ProxyNetwork}.
+ */
+public interface MessageTransport {
+    /**
+     * Starts the transport. {@code receiver} may be called from a transport-owned thread.
+     */
+    void start(String proxyId, Receiver receiver) throws IOException;
+
+    /**
+     * Queues an envelope for every connected proxy. Must not block.
+     */
+    void publish(Envelope envelope);
+
+    /**
+     * Queues an envelope for one proxy; dropped if that proxy is not connected. Must not block.
+     */
+    void send(String proxyId, Envelope envelope);
+
+    void close();
+
+    interface Receiver {
+        void receive(Envelope envelope);
+
+        /**
+         * A proxy became reachable for {@link #send(String, Envelope)}.
+         */
+        void peerConnected(String proxyId);
+
+        void peerDisconnected(String proxyId);
+    }
+}
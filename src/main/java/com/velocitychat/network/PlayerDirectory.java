@@ -0,0 +1,110 @@
+package com.velocitychat.network;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Players online on other proxies, replicated from join and leave deltas. Lookups never leave this proxy; the
+ * view is eventually consistent, so a player who just switched proxies may briefly resolve to the old one.
+ */
+public final class PlayerDirectory {
+    private final Map<UUID, Entry> byId = new ConcurrentHashMap<>();
+    /** Sorted by lowercase name for prefix lookups. */
+    private final ConcurrentSkipListMap<String, Entry> byName = new ConcurrentSkipListMap<>();
+
+    public Optional<Entry> find(String name) {
+        return Optional.ofNullable(byName.get(name.toLowerCase(Locale.ROOT)));
+    }
+
+    public Optional<Entry> find(UUID id) {
+        return Optional.ofNullable(byId.get(id));
+    }
+
+    /**
+     * Up to {@code limit} players whose names start with {@code prefix} (lowercase), in alphabetical order.
+     */
+    public List<Entry> startingWith(String prefix, int limit) {
+        List<Entry> matches = new ArrayList<>(Math.min(limit, 16));
+        for (Map.Entry<String, Entry> entry : byName.tailMap(prefix).entrySet()) {
+            if (matches.size() >= limit || !entry.getKey().startsWith(prefix)) {
+                break;
+            }
+            matches.add(entry.getValue());
+        }
+        return matches;
+    }
+
+    public Collection<Entry> entries() {
+        return byId.values();
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    void put(Entry entry) {
+        Entry previous = byId.put(entry.id, entry);
+        if (previous != null && !previous.name.equalsIgnoreCase(entry.name)) {
+            byName.remove(previous.key(), previous);
+        }
+        byName.put(entry.key(), entry);
+    }
+
+    /**
+     * Removes a player only if {@code proxyId} still owns them, so a late leave from the proxy a player moved away
+     * from cannot erase the newer join.
+     */
+    void remove(UUID id, String proxyId) {
+        Entry entry = byId.get(id);
+        if (entry != null && entry.proxyId.equals(proxyId) && byId.remove(id, entry)) {
+            byName.remove(entry.key(), entry);
+        }
+    }
+
+    void removeProxy(String proxyId) {
+        for (Entry entry : byId.values()) {
+            remove(entry.id, proxyId);
+        }
+    }
+
+    public static final class Entry {
+        private final UUID id;
+        private final String name;
+        private final String proxyId;
+        private final boolean staff;
+
+        public Entry(UUID id, String name, String proxyId, boolean staff) {
+            this.id = id;
+            this.name = name;
+            this.proxyId = proxyId;
+            this.staff = staff;
+        }
+
+        public UUID getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getProxyId() {
+            return proxyId;
+        }
+
+        public boolean isStaff() {
+            return staff;
+        }
+
+        private String key() {
+            return name.toLowerCase(Locale.ROOT);
+        }
+    }
+}
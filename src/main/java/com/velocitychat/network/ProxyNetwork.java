@@ -0,0 +1,173 @@
+package com.velocitychat.network;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * This proxy's end of the cross-proxy chat network. Stamps outgoing envelopes with the proxy id and a sequence
+ * number, and drops incoming envelopes that originated here or were already delivered.
+ *
+ * <p>Also keeps the {@link PlayerDirectory} of players on other proxies: local logins and logouts are published
+ * as deltas, a newly connected peer is sent this proxy's full roster, and a peer's players are dropped when its
+ * link goes away. Links are one-way, so when this proxy's link to a peer comes back it also asks the peer for its
+ * roster: the peer's own link may never have dropped, and would otherwise never resend the players removed
+ * here.</p>
+ */
+public final class ProxyNetwork {
+    private final String proxyId;
+    private final MessageTransport transport;
+    private final PlayerDirectory directory = new PlayerDirectory();
+    /** Seeded from the clock so sequences keep increasing across restarts of this proxy. */
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis() << 20);
+    private final Map<String, ReplayWindow> windows = new ConcurrentHashMap<>();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    public ProxyNetwork(String proxyId, MessageTransport transport) {
+        this.proxyId = proxyId;
+        this.transport = transport;
+    }
+
+    /**
+     * Starts the transport. {@code handler} receives chat and private-message envelopes; {@code localRoster} is
+     * asked for the players on this proxy whenever a peer connects.
+     */
+    public void start(Consumer<Envelope> handler, Supplier<? extends Collection<PlayerDirectory.Entry>> localRoster)
+            throws IOException {
+        transport.start(proxyId, new MessageTransport.Receiver() {
+            @Override
+            public void receive(Envelope envelope) {
+                ProxyNetwork.this.receive(envelope, handler, localRoster);
+            }
+
+            @Override
+            public void peerConnected(String peer) {
+                sendRoster(peer, localRoster);
+                send(peer, envelope(Envelope.Type.ROSTER_REQUEST, null, null, null, null, null, null, null, false));
+            }
+
+            @Override
+            public void peerDisconnected(String peer) {
+                directory.removeProxy(peer);
+            }
+        });
+    }
+
+    public void close() {
+        transport.close();
+    }
+
+    public String getProxyId() {
+        return proxyId;
+    }
+
+    public PlayerDirectory getDirectory() {
+        return directory;
+    }
+
+    public void publishChannel(String channel, UUID sender, String senderName, String server, String message) {
+        publish(envelope(Envelope.Type.CHANNEL, channel, sender, senderName, server, message, null, null, false));
+    }
+
+    public void publishAlert(String senderName, String message) {
+        publish(envelope(Envelope.Type.ALERT, null, null, senderName, null, message, null, null, false));
+    }
+
+    /**
+     * Announces a local player, or updates their entry (for example after a staff permission change).
+     */
+    public void publishJoin(UUID player, String name, boolean staff) {
+        publish(envelope(Envelope.Type.JOIN, null, player, name, null, null, null, null, staff));
+    }
+
+    public void publishLeave(UUID player) {
+        publish(envelope(Envelope.Type.LEAVE, null, player, null, null, null, null, null, false));
+    }
+
+    /**
+     * Routes a private message to the proxy that owns the target. The answer comes back as one of the
+     * {@code PRIVATE_*} result envelopes.
+     */
+    public void sendPrivate(String owner, UUID sender, String senderName, UUID target, String targetName,
+                            String message) {
+        send(owner, envelope(Envelope.Type.PRIVATE, null, sender, senderName, null, message, target, targetName,
+                false));
+    }
+
+    public void replyPrivate(Envelope request, Envelope.Type result) {
+        send(request.getOrigin(), envelope(result, null, request.getSender(), request.getSenderName(), null,
+                request.getMessage(), request.getTarget(), request.getTargetName(), false));
+    }
+
+    public long getSent() {
+        return sent.sum();
+    }
+
+    public long getReceived() {
+        return received.sum();
+    }
+
+    /**
+     * Envelopes discarded as loops or duplicates.
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    private Envelope envelope(Envelope.Type type, String channel, UUID sender, String senderName, String server,
+                              String message, UUID target, String targetName, boolean staff) {
+        return new Envelope(proxyId, sequence.incrementAndGet(), type, channel, sender, senderName, server, message,
+                target, targetName, staff);
+    }
+
+    private void publish(Envelope envelope) {
+        transport.publish(envelope);
+        sent.increment();
+    }
+
+    private void send(String peer, Envelope envelope) {
+        transport.send(peer, envelope);
+        sent.increment();
+    }
+
+    private void sendRoster(String peer, Supplier<? extends Collection<PlayerDirectory.Entry>> localRoster) {
+        for (PlayerDirectory.Entry entry : localRoster.get()) {
+            send(peer, envelope(Envelope.Type.JOIN, null, entry.getId(), entry.getName(), null, null, null, null,
+                    entry.isStaff()));
+        }
+    }
+
+    private void receive(Envelope envelope, Consumer<Envelope> handler,
+                         Supplier<? extends Collection<PlayerDirectory.Entry>> localRoster) {
+        String origin = envelope.getOrigin();
+        if (proxyId.equals(origin)
+                || !windows.computeIfAbsent(origin, key -> new ReplayWindow()).accept(envelope.getSequence())) {
+            dropped.increment();
+            return;
+        }
+        received.increment();
+        switch (envelope.getType()) {
+            case JOIN -> {
+                if (envelope.getSender() != null && envelope.getSenderName() != null) {
+                    directory.put(new PlayerDirectory.Entry(envelope.getSender(), envelope.getSenderName(), origin,
+                            envelope.isStaff()));
+                }
+            }
+            case LEAVE -> {
+                if (envelope.getSender() != null) {
+                    directory.remove(envelope.getSender(), origin);
+                }
+            }
+            case ROSTER_REQUEST -> sendRoster(origin, localRoster);
+            default -> handler.accept(envelope);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.velocitychat.network;
+
+import java.util.Arrays;
+
+/**
+ * Sliding window of recently accepted sequence numbers from one origin, used to drop duplicates and replays
+ * without keeping every sequence ever seen.
+ */
+final class ReplayWindow {
+    private static final int SIZE = 1024;
+
+    private final long[] bits = new long[SIZE / Long.SIZE];
+    private long highest = -1L;
+
+    /**
+     * Returns {@code true} the first time {@code sequence} is offered, {@code false} for repeats and for
+     * sequences too far behind the newest one to tell.
+     */
+    synchronized boolean accept(long sequence) {
+        if (sequence < 0) {
+            return false;
+        }
+        if (highest < 0 || sequence - highest >= SIZE) {
+            Arrays.fill(bits, 0L);
+            highest = sequence;
+            set(sequence);
+            return true;
+        }
+        if (sequence > highest) {
+            for (long cleared = highest + 1; cleared < sequence; cleared++) {
+                clear(cleared);
+            }
+            highest = sequence;
+            set(sequence);
+            return true;
+        }
+        if (highest - sequence >= SIZE || isSet(sequence)) {
+            return false;
+        }
+        set(sequence);
+        return true;
+    }
+
+    private boolean isSet(long sequence) {
+        int index = (int) (sequence % SIZE);
+        return (bits[index >>> 6] & (1L << (index & 63))) != 0;
+    }
+
+    private void set(long sequence) {
+        int index = (int) (sequence % SIZE);
+        bits[index >>> 6] |= 1L << (index & 63);
+    }
+
+    private void clear(long sequence) {
+        int index = (int) (sequence % SIZE);
+        bits[index >>> 6] &= ~(1L << (index & 63));
+    }
+}
@@ -0,0 +1,590 @@
+package com.velocitychat.network;
+
+import org.slf4j.Logger;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking TCP transport between proxies, driven by a single selector thread.
+ *
+ * <p>Each proxy listens on its bind address and opens one connection to every configured peer. Published
+ * envelopes are only written to the connections this proxy opened, and the receiving side never forwards them,
+ * so every message crosses each link once. Envelopes are collected for up to the flush interval (or until a
+ * batch fills) and written as one length-prefixed frame that carries the origin once per batch.</p>
+ *
+ * <p>Frames: {@code int length, byte kind, UTF origin}, followed for batches by {@code int count} and the encoded
+ * envelopes. Both ends send a hello frame with their proxy id when a connection opens; the hello that comes back
+ * on a connection this proxy opened names the peer, which is what targeted sends are routed by.</p>
+ *
+ * <p>Nothing is sent or accepted on a connection until the other end is authenticated. With a shared secret, each
+ * hello carries a random nonce and each side answers the other's with an HMAC-SHA256 of that nonce and its own
+ * proxy id, so a host without the secret cannot join and a recorded answer cannot be replayed. Without a secret,
+ * only inbound connections from the configured peers' addresses are accepted.</p>
+ */
+public final class TcpTransport implements MessageTransport {
+    private static final byte HELLO = 0;
+    private static final byte BATCH = 1;
+    private static final byte AUTH = 2;
+    private static final int NONCE_BYTES = 16;
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+    private static final int MAX_FRAME_BYTES = 16 * 1024 * 1024;
+    private static final int MAX_PENDING_BYTES = 8 * 1024 * 1024;
+    private static final long RECONNECT_MILLIS = 2000L;
+
+    private final InetSocketAddress bind;
+    private final List<InetSocketAddress> peers;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final Logger logger;
+    /** Key for the hello handshake, or {@code null} to rely on {@link #allowedHosts}. */
+    private final SecretKeySpec secret;
+    private final Set<InetAddress> allowedHosts = new HashSet<>();
+    private final SecureRandom random = new SecureRandom();
+
+    private final ConcurrentLinkedQueue<Envelope> outbound = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Targeted> targeted = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Map<InetSocketAddress, Connection> peerConnections = new HashMap<>();
+    private final Map<InetSocketAddress, Long> nextAttempt = new HashMap<>();
+
+    private volatile boolean running;
+    private Selector selector;
+    private ServerSocketChannel server;
+    private Thread thread;
+    private String proxyId;
+    private Receiver receiver;
+
+    /**
+     * @param secret shared by every linked proxy; blank to accept inbound connections from the peers' addresses only
+     */
+    public TcpTransport(InetSocketAddress bind, List<InetSocketAddress> peers, int batchSize, long flushIntervalMillis,
+                        String secret, Logger logger) {
+        this.bind = bind;
+        this.peers = List.copyOf(peers);
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalMillis = Math.max(1L, flushIntervalMillis);
+        this.logger = logger;
+        this.secret = secret == null || secret.isBlank()
+                ? null : new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), MAC_ALGORITHM);
+        for (InetSocketAddress peer : this.peers) {
+            if (peer.getAddress() != null) {
+                allowedHosts.add(peer.getAddress());
+            }
+        }
+    }
+
+    /**
+     * Parses {@code host:port}; a bare port binds to the loopback address.
+     */
+    public static InetSocketAddress parseAddress(String value) {
+        String trimmed = value.trim();
+        int colon = trimmed.lastIndexOf(':');
+        if (colon < 0) {
+            return new InetSocketAddress("127.0.0.1", Integer.parseInt(trimmed));
+        }
+        return new InetSocketAddress(trimmed.substring(0, colon), Integer.parseInt(trimmed.substring(colon + 1)));
+    }
+
+    @Override
+    public void start(String proxyId, Receiver receiver) throws IOException {
+        this.proxyId = proxyId;
+        this.receiver = receiver;
+        this.selector = Selector.open();
+        if (bind != null) {
+            server = ServerSocketChannel.open();
+            server.configureBlocking(false);
+            server.bind(bind);
+            server.register(selector, SelectionKey.OP_ACCEPT);
+        }
+        running = true;
+        thread = new Thread(this::run, "VelocityChat Network");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void publish(Envelope envelope) {
+        outbound.add(envelope);
+        signalQueued();
+    }
+
+    @Override
+    public void send(String target, Envelope envelope) {
+        targeted.add(new Targeted(target, envelope));
+        signalQueued();
+    }
+
+    private void signalQueued() {
+        if (queued.incrementAndGet() >= batchSize) {
+            Selector current = selector;
+            if (current != null) {
+                current.wakeup();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        Selector current = selector;
+        if (current != null) {
+            current.wakeup();
+        }
+        Thread worker = thread;
+        if (worker != null) {
+            try {
+                worker.join(2000L);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                connectPeers(System.currentTimeMillis());
+                selector.select(flushIntervalMillis);
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    handle(key);
+                }
+                flushOutbound();
+            }
+        } catch (IOException ex) {
+            logger.error("VelocityChat network transport stopped unexpectedly", ex);
+        } finally {
+            closeAll();
+        }
+    }
+
+    private void handle(SelectionKey key) {
+        if (!key.isValid()) {
+            return;
+        }
+        if (key.isAcceptable()) {
+            accept();
+            return;
+        }
+        Connection connection = (Connection) key.attachment();
+        try {
+            if (key.isConnectable()) {
+                finishConnect(connection);
+            }
+            if (key.isValid() && key.isReadable()) {
+                read(connection);
+            }
+            if (key.isValid() && key.isWritable()) {
+                write(connection);
+            }
+        } catch (IOException ex) {
+            logger.warn("VelocityChat peer connection {} closed: {}", connection.describe(), ex.getMessage());
+            closeConnection(connection);
+        }
+    }
+
+    private void accept() {
+        try {
+            SocketChannel channel = server.accept();
+            if (channel == null) {
+                return;
+            }
+            if (secret == null && !isAllowed(channel)) {
+                logger.warn("Rejected VelocityChat connection from {}: not a configured peer and no network.secret is set",
+                        channel.getRemoteAddress());
+                channel.close();
+                return;
+            }
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            Connection connection = new Connection(channel, null);
+            connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+            enqueue(connection, hello(connection));
+        } catch (IOException ex) {
+            logger.warn("Failed to accept VelocityChat peer connection: {}", ex.getMessage());
+        }
+    }
+
+    private boolean isAllowed(SocketChannel channel) throws IOException {
+        return channel.getRemoteAddress() instanceof InetSocketAddress remote
+                && allowedHosts.contains(remote.getAddress());
+    }
+
+    private void connectPeers(long now) {
+        for (InetSocketAddress peer : peers) {
+            if (peerConnections.containsKey(peer) || now < nextAttempt.getOrDefault(peer, 0L)) {
+                continue;
+            }
+            nextAttempt.put(peer, now + RECONNECT_MILLIS);
+            try {
+                SocketChannel channel = SocketChannel.open();
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                Connection connection = new Connection(channel, peer);
+                boolean connected = channel.connect(peer);
+                connection.key = channel.register(selector,
+                        connected ? SelectionKey.OP_READ : SelectionKey.OP_CONNECT, connection);
+                peerConnections.put(peer, connection);
+                if (connected) {
+                    onConnected(connection);
+                }
+            } catch (IOException ex) {
+                logger.debug("VelocityChat peer {} unavailable: {}", peer, ex.getMessage());
+            }
+        }
+    }
+
+    private void finishConnect(Connection connection) throws IOException {
+        if (connection.channel.finishConnect()) {
+            connection.key.interestOps(SelectionKey.OP_READ);
+            onConnected(connection);
+        }
+    }
+
+    private void onConnected(Connection connection) {
+        logger.info("VelocityChat connected to peer {}", connection.peer);
+        enqueue(connection, hello(connection));
+    }
+
+    private void read(Connection connection) throws IOException {
+        int read = connection.channel.read(connection.readBuffer);
+        if (read < 0) {
+            throw new IOException("end of stream");
+        }
+        ByteBuffer buffer = connection.readBuffer;
+        buffer.flip();
+        while (buffer.remaining() >= Integer.BYTES) {
+            int length = buffer.getInt(buffer.position());
+            if (length <= 0 || length > MAX_FRAME_BYTES) {
+                throw new IOException("invalid frame length " + length);
+            }
+            if (buffer.remaining() < Integer.BYTES + length) {
+                if (buffer.capacity() < Integer.BYTES + length) {
+                    ByteBuffer larger = ByteBuffer.allocate(Integer.BYTES + length);
+                    larger.put(buffer);
+                    connection.readBuffer = larger;
+                    return;
+                }
+                break;
+            }
+            int start = buffer.position() + Integer.BYTES;
+            handleFrame(connection, buffer.array(), buffer.arrayOffset() + start, length);
+            buffer.position(start + length);
+        }
+        buffer.compact();
+    }
+
+    private void handleFrame(Connection connection, byte[] data, int offset, int length) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data, offset, length));
+        byte kind = in.readByte();
+        String origin = in.readUTF();
+        if (kind == HELLO) {
+            if (connection.remoteId != null) {
+                throw new IOException("repeated hello");
+            }
+            if (origin.equals(proxyId)) {
+                // Also stops a peer reflecting this proxy's own challenge back at it.
+                throw new IOException("peer claims this proxy's id '" + origin + "'");
+            }
+            connection.remoteId = origin;
+            if (secret == null) {
+                authenticated(connection);
+                return;
+            }
+            byte[] nonce = new byte[NONCE_BYTES];
+            in.readFully(nonce);
+            enqueue(connection, frame(AUTH, out -> out.write(mac(nonce, proxyId))));
+            return;
+        }
+        if (kind == AUTH) {
+            if (secret == null || connection.remoteId == null || connection.authenticated) {
+                throw new IOException("unexpected auth frame");
+            }
+            byte[] proof = in.readAllBytes();
+            if (!origin.equals(connection.remoteId)
+                    || !MessageDigest.isEqual(proof, mac(connection.nonce, connection.remoteId))) {
+                throw new IOException("peer '" + origin + "' failed authentication; check network.secret");
+            }
+            authenticated(connection);
+            return;
+        }
+        if (kind != BATCH) {
+            throw new IOException("unknown frame kind " + kind);
+        }
+        if (!connection.authenticated) {
+            throw new IOException("batch from unauthenticated peer");
+        }
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            Envelope envelope = Envelope.read(origin, in);
+            try {
+                receiver.receive(envelope);
+            } catch (RuntimeException ex) {
+                logger.error("Failed to handle VelocityChat envelope from {}", origin, ex);
+            }
+        }
+    }
+
+    private void authenticated(Connection connection) {
+        connection.authenticated = true;
+        if (connection.peer != null) {
+            notifyPeer(connection.remoteId, true);
+        }
+    }
+
+    private byte[] mac(byte[] nonce, String id) throws IOException {
+        try {
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(secret);
+            mac.update(nonce);
+            return mac.doFinal(id.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException ex) {
+            throw new IOException("cannot compute handshake MAC", ex);
+        }
+    }
+
+    private void write(Connection connection) throws IOException {
+        while (!connection.writes.isEmpty()) {
+            ByteBuffer frame = connection.writes.peek();
+            connection.channel.write(frame);
+            if (frame.hasRemaining()) {
+                return;
+            }
+            connection.writes.poll();
+            connection.pendingBytes -= frame.capacity();
+        }
+        connection.key.interestOps(SelectionKey.OP_READ);
+    }
+
+    private void notifyPeer(String remoteId, boolean connected) {
+        try {
+            if (connected) {
+                receiver.peerConnected(remoteId);
+            } else {
+                receiver.peerDisconnected(remoteId);
+            }
+        } catch (RuntimeException ex) {
+            logger.error("Failed to handle VelocityChat peer change for {}", remoteId, ex);
+        }
+    }
+
+    private void flushOutbound() {
+        if (outbound.isEmpty() && targeted.isEmpty()) {
+            return;
+        }
+        queued.set(0);
+        if (!targeted.isEmpty()) {
+            flushTargeted();
+        }
+        if (outbound.isEmpty()) {
+            return;
+        }
+        List<Envelope> batch = new ArrayList<>(Math.min(batchSize, 64));
+        Envelope envelope;
+        while ((envelope = outbound.poll()) != null) {
+            batch.add(envelope);
+            if (batch.size() >= batchSize) {
+                broadcast(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            broadcast(batch);
+        }
+    }
+
+    private void flushTargeted() {
+        Map<String, List<Envelope>> byPeer = new HashMap<>();
+        Targeted next;
+        while ((next = targeted.poll()) != null) {
+            byPeer.computeIfAbsent(next.proxyId, key -> new ArrayList<>()).add(next.envelope);
+        }
+        for (Connection connection : peerConnections.values()) {
+            List<Envelope> batch = connection.authenticated ? byPeer.remove(connection.remoteId) : null;
+            if (batch == null || !connection.channel.isConnected()) {
+                continue;
+            }
+            for (int from = 0; from < batch.size(); from += batchSize) {
+                try {
+                    enqueue(connection, encodeBatch(batch.subList(from, Math.min(batch.size(), from + batchSize))));
+                } catch (IOException ex) {
+                    logger.error("Failed to encode VelocityChat batch", ex);
+                    break;
+                }
+            }
+        }
+    }
+
+    private void broadcast(List<Envelope> batch) {
+        ByteBuffer frame;
+        try {
+            frame = encodeBatch(batch);
+        } catch (IOException ex) {
+            logger.error("Failed to encode VelocityChat batch", ex);
+            return;
+        }
+        for (Connection connection : peerConnections.values()) {
+            if (connection.authenticated && connection.channel.isConnected()) {
+                enqueue(connection, frame.duplicate());
+            }
+        }
+    }
+
+    private void enqueue(Connection connection, ByteBuffer frame) {
+        if (connection.pendingBytes + frame.capacity() > MAX_PENDING_BYTES) {
+            if (!connection.overflowLogged) {
+                connection.overflowLogged = true;
+                logger.warn("VelocityChat peer {} is not keeping up; dropping chat batches.", connection.describe());
+            }
+            return;
+        }
+        connection.overflowLogged = false;
+        connection.writes.add(frame);
+        connection.pendingBytes += frame.capacity();
+        if (connection.key != null && connection.key.isValid()) {
+            connection.key.interestOps(connection.key.interestOps() | SelectionKey.OP_WRITE);
+        }
+    }
+
+    private ByteBuffer hello(Connection connection) {
+        if (secret != null) {
+            connection.nonce = new byte[NONCE_BYTES];
+            random.nextBytes(connection.nonce);
+        }
+        try {
+            return frame(HELLO, out -> {
+                if (connection.nonce != null) {
+                    out.write(connection.nonce);
+                }
+            });
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private ByteBuffer encodeBatch(List<Envelope> batch) throws IOException {
+        return frame(BATCH, out -> {
+            out.writeInt(batch.size());
+            for (Envelope envelope : batch) {
+                envelope.write(out);
+            }
+        });
+    }
+
+    private ByteBuffer frame(byte kind, FrameWriter body) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0);
+        out.writeByte(kind);
+        out.writeUTF(proxyId);
+        body.write(out);
+        out.flush();
+        ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+        buffer.putInt(0, buffer.capacity() - Integer.BYTES);
+        return buffer.asReadOnlyBuffer();
+    }
+
+    private void closeConnection(Connection connection) {
+        if (connection.key != null) {
+            connection.key.cancel();
+        }
+        try {
+            connection.channel.close();
+        } catch (IOException ignored) {
+            // Already closing.
+        }
+        if (connection.peer != null && peerConnections.remove(connection.peer) == connection
+                && connection.authenticated) {
+            notifyPeer(connection.remoteId, false);
+        }
+    }
+
+    private void closeAll() {
+        if (selector == null) {
+            return;
+        }
+        for (SelectionKey key : selector.keys()) {
+            try {
+                key.channel().close();
+            } catch (IOException ignored) {
+                // Shutting down.
+            }
+        }
+        peerConnections.clear();
+        try {
+            selector.close();
+        } catch (IOException ignored) {
+            // Shutting down.
+        }
+    }
+
+    @FunctionalInterface
+    private interface FrameWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private static final class Targeted {
+        private final String proxyId;
+        private final Envelope envelope;
+
+        private Targeted(String proxyId, Envelope envelope) {
+            this.proxyId = proxyId;
+            this.envelope = envelope;
+        }
+    }
+
+    private static final class Connection {
+        private final SocketChannel channel;
+        private final InetSocketAddress peer;
+        private final ArrayDeque<ByteBuffer> writes = new ArrayDeque<>();
+        private ByteBuffer readBuffer = ByteBuffer.allocate(64 * 1024);
+        private SelectionKey key;
+        private long pendingBytes;
+        private boolean overflowLogged;
+        private String remoteId;
+        /** The challenge sent in this side's hello, when a secret is configured. */
+        private byte[] nonce;
+        private boolean authenticated;
+
+        private Connection(SocketChannel channel, InetSocketAddress peer) {
+            this.channel = channel;
+            this.peer = peer;
+        }
+
+        private String describe() {
+            if (remoteId != null) {
+                return remoteId;
+            }
+            return peer != null ? peer.toString() : "inbound";
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.velocitychat.storage;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Recently seen players' UUIDs and names, shared by everything that keeps names around.
+ *
+ * <p>Lookups in either direction are plain map reads and never touch the disk. Each player has one canonical name
+ * String, which ignore lists reuse instead of holding copies, so heap used for names grows with the number of
+ * distinct players rather than with the number of ignores. The registry holds at most {@code capacity} players;
+ * when it grows past that, the least recently seen are evicted in a batch. It is loaded and saved by
+ * {@link PlayerDataStore} on its storage thread, one {@code <uuid> <name>} line per player, oldest first.</p>
+ */
+public final class NameRegistry {
+    private static final int DEFAULT_CAPACITY = 10_000;
+
+    private final Map<UUID, Entry> byId = new ConcurrentHashMap<>();
+    private final Map<String, Entry> byName = new ConcurrentHashMap<>();
+    private final AtomicLong clock = new AtomicLong();
+    private volatile int capacity = DEFAULT_CAPACITY;
+    private volatile boolean dirty;
+    /** Players eviction must skip because something, such as an ignore list, still refers to them. */
+    private volatile Predicate<UUID> retained = id -> false;
+
+    public void setCapacity(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        trim();
+    }
+
+    /**
+     * Keeps players matching {@code retained} through eviction, so names still in use can always be looked up.
+     * They count towards the capacity but are never the ones evicted.
+     */
+    public void setRetained(Predicate<UUID> retained) {
+        this.retained = retained;
+    }
+
+    /**
+     * Records {@code name} as the current name of {@code id}, typically at login, and returns the canonical String.
+     */
+    public String remember(UUID id, String name) {
+        Entry entry = byId.get(id);
+        long now = clock.incrementAndGet();
+        if (entry != null && entry.name.equals(name)) {
+            entry.lastSeen = now;
+            return entry.name;
+        }
+        synchronized (this) {
+            entry = byId.get(id);
+            if (entry != null && entry.name.equals(name)) {
+                entry.lastSeen = now;
+                return entry.name;
+            }
+            put(new Entry(id, name, now));
+        }
+        trim();
+        return name;
+    }
+
+    /**
+     * The canonical name for {@code id}: the registry's own String if it knows the player (possibly a newer name
+     * than {@code name}), otherwise {@code name}, which is then remembered.
+     */
+    public String canonical(UUID id, String name) {
+        Entry entry = byId.get(id);
+        if (entry != null) {
+            return entry.name;
+        }
+        synchronized (this) {
+            entry = byId.get(id);
+            if (entry != null) {
+                return entry.name;
+            }
+            if (byName.containsKey(key(name))) {
+                // Someone else was seen with this name more recently; keep their claim.
+                return name;
+            }
+            put(new Entry(id, name, clock.incrementAndGet()));
+        }
+        trim();
+        return name;
+    }
+
+    public Optional<Entry> find(String name) {
+        Entry entry = byName.get(key(name));
+        if (entry != null) {
+            entry.lastSeen = clock.incrementAndGet();
+        }
+        return Optional.ofNullable(entry);
+    }
+
+    public Optional<String> getName(UUID id) {
+        Entry entry = byId.get(id);
+        return entry == null ? Optional.empty() : Optional.of(entry.name);
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    /**
+     * Adds players saved by an earlier run without displacing anyone seen since startup.
+     */
+    void load(Path file) throws IOException {
+        List<Entry> loaded = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int space = line.indexOf(' ');
+                if (space <= 0 || space == line.length() - 1) {
+                    continue;
+                }
+                try {
+                    loaded.add(new Entry(UUID.fromString(line.substring(0, space)), line.substring(space + 1), 0L));
+                } catch (IllegalArgumentException ignored) {
+                    // Skip a damaged line.
+                }
+            }
+        } catch (NoSuchFileException ex) {
+            return;
+        }
+        // Saved players rank below everyone seen this run, in their saved order.
+        synchronized (this) {
+            for (int i = 0; i < loaded.size(); i++) {
+                Entry entry = loaded.get(i);
+                entry.lastSeen = i - loaded.size();
+                if (!byId.containsKey(entry.id) && !byName.containsKey(entry.key())) {
+                    put(entry);
+                }
+            }
+        }
+        trim();
+    }
+
+    /**
+     * Writes the registry if anything changed since the last save.
+     */
+    void save(Path file) throws IOException {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+        List<Entry> entries = oldestFirst(byId.values());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            for (Entry entry : entries) {
+                writer.write(entry.id + " " + entry.name);
+                writer.newLine();
+            }
+        } catch (IOException ex) {
+            dirty = true;
+            throw ex;
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Updates both maps for {@code entry}. Callers hold the registry's lock, so the two maps always change together
+     * and never point at entries the other has dropped.
+     */
+    private void put(Entry entry) {
+        Entry previous = byId.put(entry.id, entry);
+        if (previous != null) {
+            byName.remove(previous.key(), previous);
+        }
+        Entry displaced = byName.put(entry.key(), entry);
+        if (displaced != null && displaced != previous) {
+            // The name now belongs to another account.
+            byId.remove(displaced.id, displaced);
+        }
+        dirty = true;
+    }
+
+    /**
+     * Evicts the least recently seen players once over capacity, with some headroom so the sort is not repeated
+     * on every insert.
+     */
+    private void trim() {
+        int limit = capacity;
+        if (byId.size() <= limit) {
+            return;
+        }
+        synchronized (this) {
+            int excess = byId.size() - limit;
+            if (excess <= 0) {
+                return;
+            }
+            Predicate<UUID> keep = retained;
+            List<Entry> entries = oldestFirst(byId.values());
+            int evict = excess + limit / 16;
+            for (int i = 0; i < entries.size() && evict > 0; i++) {
+                Entry entry = entries.get(i);
+                if (!keep.test(entry.id) && byId.remove(entry.id, entry)) {
+                    byName.remove(entry.key(), entry);
+                    evict--;
+                }
+            }
+            dirty = true;
+        }
+    }
+
+    /**
+     * Sorts by a copy of each entry's last-seen time, because {@link #remember} and {@link #find} update it without
+     * the lock and a key that moves during the sort breaks the comparator's contract.
+     */
+    private static List<Entry> oldestFirst(Collection<Entry> values) {
+        Entry[] entries = values.toArray(new Entry[0]);
+        long[] seen = new long[entries.length];
+        Integer[] order = new Integer[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            seen[i] = entries[i].lastSeen;
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong(i -> seen[i]));
+        List<Entry> sorted = new ArrayList<>(entries.length);
+        for (int i : order) {
+            sorted.add(entries[i]);
+        }
+        return sorted;
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    public static final class Entry {
+        private final UUID id;
+        private final String name;
+        private volatile long lastSeen;
+
+        private Entry(UUID id, String name, long lastSeen) {
+            this.id = id;
+            this.name = name;
+            this.lastSeen = lastSeen;
+        }
+
+        public UUID getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        private String key() {
+            return NameRegistry.key(name);
+        }
+    }
+}
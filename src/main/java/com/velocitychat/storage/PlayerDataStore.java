@@ -0,0 +1,366 @@
+package com.velocitychat.storage;
+
+import com.velocitychat.chat.ChatChannel;
+import org.slf4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durable ignore lists and channel preferences, stored as append-only logs in the plugin data directory.
+ *
+ * <p>Players are spread over a fixed number of bucket logs by UUID, so nothing is read at startup and a login
+ * only reads the one bucket holding that player. All file I/O runs on a single storage thread: writes are queued
+ * lock-free and appended in batches, loads that pile up during a login storm are grouped so each bucket is read
+ * once per batch, and buckets that have grown by enough records are periodically rewritten in compacted form.</p>
+ *
+ * <p>Record lines all start with a type and the owning player's UUID:</p>
+ * <pre>
+ * P &lt;player&gt; &lt;speak-channel&gt; &lt;listening,...|-&gt;
+ * I &lt;player&gt; &lt;ignored-uuid&gt; &lt;ignored-name&gt;
+ * U &lt;player&gt; &lt;ignored-uuid&gt;
+ * </pre>
+ *
+ * <p>The {@link NameRegistry} is loaded from {@code names.txt} in the same directory when storage starts and saved
+ * there after each flush in which it changed.</p>
+ */
+public final class PlayerDataStore {
+    private static final int BUCKETS = 256;
+    private static final int UUID_OFFSET = 2;
+    private static final int UUID_LENGTH = 36;
+
+    private final Path directory;
+    private final Logger logger;
+    private final ConcurrentLinkedQueue<String> pendingWrites = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<LoadRequest> pendingLoads = new ConcurrentLinkedQueue<>();
+    private final int[] appendedSinceCompaction = new int[BUCKETS];
+    private final NameRegistry names = new NameRegistry();
+
+    private volatile ScheduledExecutorService io;
+    private int compactThreshold;
+
+    public PlayerDataStore(Path directory, Logger logger) {
+        this.directory = directory;
+        this.logger = logger;
+    }
+
+    public void start(long flushIntervalMillis, int compactThreshold) {
+        this.compactThreshold = Math.max(1, compactThreshold);
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException ex) {
+            logger.error("Unable to create player data directory; chat preferences will not be saved.", ex);
+            return;
+        }
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "VelocityChat Storage");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(50L, flushIntervalMillis);
+        executor.execute(this::loadNames);
+        executor.scheduleWithFixedDelay(this::flushAndCompact, interval, interval, TimeUnit.MILLISECONDS);
+        io = executor;
+    }
+
+    /**
+     * Known players' names; usable, in memory only, even when storage is off.
+     */
+    public NameRegistry getNames() {
+        return names;
+    }
+
+    /**
+     * Flushes outstanding writes and stops the storage thread.
+     */
+    public void shutdown() {
+        ScheduledExecutorService executor = io;
+        io = null;
+        if (executor == null) {
+            return;
+        }
+        executor.execute(() -> {
+            flush();
+            saveNames();
+        });
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                logger.warn("Timed out flushing VelocityChat player data.");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Loads a player's stored state off-thread. Completes with {@code null} when nothing is stored or storage is off.
+     */
+    public CompletableFuture<StoredPlayer> load(UUID player) {
+        ScheduledExecutorService executor = io;
+        if (executor == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        LoadRequest request = new LoadRequest(player);
+        pendingLoads.add(request);
+        executor.execute(this::drainLoads);
+        return request.future;
+    }
+
+    /**
+     * Saves a player's channels. {@code unknownListening} are channel names from an earlier record that are not
+     * usable in this run; they are written back so the player rejoins them if the channel returns.
+     */
+    public void savePreferences(UUID player, ChatChannel speakChannel, Set<ChatChannel> listening,
+                                Set<String> unknownListening) {
+        Set<String> names = new LinkedHashSet<>();
+        listening.forEach(channel -> names.add(channel.name()));
+        names.addAll(unknownListening);
+        enqueue(preferencesRecord(player, speakChannel.name(), names));
+    }
+
+    public void saveIgnore(UUID owner, UUID target, String targetName) {
+        enqueue("I " + owner + " " + target + " " + targetName);
+    }
+
+    public void saveUnignore(UUID owner, UUID target) {
+        enqueue("U " + owner + " " + target);
+    }
+
+    private void enqueue(String record) {
+        if (io != null) {
+            pendingWrites.add(record);
+        }
+    }
+
+    private void flushAndCompact() {
+        flush();
+        saveNames();
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            if (appendedSinceCompaction[bucket] >= compactThreshold) {
+                compact(bucket);
+            }
+        }
+    }
+
+    private void flush() {
+        if (pendingWrites.isEmpty()) {
+            return;
+        }
+        Map<Integer, List<String>> byBucket = new HashMap<>();
+        String record;
+        while ((record = pendingWrites.poll()) != null) {
+            byBucket.computeIfAbsent(bucketOf(record), key -> new ArrayList<>()).add(record);
+        }
+        byBucket.forEach((bucket, records) -> {
+            try (BufferedWriter writer = Files.newBufferedWriter(bucketPath(bucket), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (String line : records) {
+                    writer.write(line);
+                    writer.newLine();
+                }
+                appendedSinceCompaction[bucket] += records.size();
+            } catch (IOException ex) {
+                logger.error("Failed to write VelocityChat player data bucket {}", bucket, ex);
+            }
+        });
+    }
+
+    private void loadNames() {
+        try {
+            names.load(namesPath());
+        } catch (IOException ex) {
+            logger.error("Failed to read VelocityChat player names", ex);
+        }
+    }
+
+    private void saveNames() {
+        try {
+            names.save(namesPath());
+        } catch (IOException ex) {
+            logger.error("Failed to save VelocityChat player names", ex);
+        }
+    }
+
+    private void drainLoads() {
+        if (pendingLoads.isEmpty()) {
+            return;
+        }
+        flush();
+        Map<Integer, Map<UUID, List<LoadRequest>>> byBucket = new HashMap<>();
+        LoadRequest request;
+        while ((request = pendingLoads.poll()) != null) {
+            byBucket.computeIfAbsent(bucketOf(request.player), key -> new HashMap<>())
+                    .computeIfAbsent(request.player, key -> new ArrayList<>())
+                    .add(request);
+        }
+        byBucket.forEach((bucket, requests) -> {
+            Map<UUID, StoredPlayer> loaded;
+            try {
+                loaded = read(bucket, requests.keySet());
+            } catch (IOException ex) {
+                logger.error("Failed to read VelocityChat player data bucket {}", bucket, ex);
+                loaded = Map.of();
+            }
+            for (Map.Entry<UUID, List<LoadRequest>> entry : requests.entrySet()) {
+                StoredPlayer stored = loaded.get(entry.getKey());
+                entry.getValue().forEach(waiting -> waiting.future.complete(stored));
+            }
+        });
+    }
+
+    private void compact(int bucket) {
+        Path path = bucketPath(bucket);
+        try {
+            Map<UUID, StoredPlayer> players = read(bucket, null);
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                for (Map.Entry<UUID, StoredPlayer> entry : players.entrySet()) {
+                    StoredPlayer stored = entry.getValue();
+                    if (stored.isEmpty()) {
+                        continue;
+                    }
+                    UUID id = entry.getKey();
+                    if (stored.hasPreferences()) {
+                        // Written from the saved names, so channels not defined in this run are kept as they are.
+                        writer.write(preferencesRecord(id, stored.getSpeakChannelName(), stored.getListeningNames()));
+                        writer.newLine();
+                    }
+                    for (Map.Entry<UUID, String> ignored : stored.getIgnored().entrySet()) {
+                        writer.write("I " + id + " " + ignored.getKey() + " " + ignored.getValue());
+                        writer.newLine();
+                    }
+                }
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            appendedSinceCompaction[bucket] = 0;
+        } catch (IOException ex) {
+            logger.error("Failed to compact VelocityChat player data bucket {}", bucket, ex);
+        }
+    }
+
+    /**
+     * Folds a bucket log into per-player state, keeping only {@code wanted} players when given.
+     */
+    private Map<UUID, StoredPlayer> read(int bucket, Set<UUID> wanted) throws IOException {
+        Map<String, UUID> wantedKeys = null;
+        if (wanted != null) {
+            wantedKeys = new HashMap<>();
+            for (UUID id : wanted) {
+                wantedKeys.put(id.toString(), id);
+            }
+        }
+        Map<UUID, StoredPlayer> players = new LinkedHashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(bucketPath(bucket), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.length() < UUID_OFFSET + UUID_LENGTH) {
+                    continue;
+                }
+                String ownerKey = line.substring(UUID_OFFSET, UUID_OFFSET + UUID_LENGTH);
+                UUID owner;
+                if (wantedKeys != null) {
+                    owner = wantedKeys.get(ownerKey);
+                    if (owner == null) {
+                        continue;
+                    }
+                } else {
+                    owner = parseUuid(ownerKey);
+                    if (owner == null) {
+                        continue;
+                    }
+                }
+                apply(players.computeIfAbsent(owner, key -> new StoredPlayer()), line);
+            }
+        } catch (NoSuchFileException ex) {
+            return Map.of();
+        }
+        return players;
+    }
+
+    private static String preferencesRecord(UUID player, String speakChannel, Set<String> listening) {
+        String channels = listening.isEmpty() ? "-" : String.join(",", listening);
+        return "P " + player + " " + speakChannel + " " + channels;
+    }
+
+    private static void apply(StoredPlayer stored, String line) {
+        String[] parts = line.split(" ", 4);
+        switch (parts[0]) {
+            case "P" -> {
+                if (parts.length < 4) {
+                    return;
+                }
+                List<String> listening = parts[3].equals("-") ? List.of() : List.of(parts[3].split(","));
+                stored.setPreferences(parts[2], listening);
+            }
+            case "I" -> {
+                UUID target = parts.length == 4 ? parseUuid(parts[2]) : null;
+                if (target != null) {
+                    stored.addIgnored(target, parts[3]);
+                }
+            }
+            case "U" -> {
+                UUID target = parts.length >= 3 ? parseUuid(parts[2]) : null;
+                if (target != null) {
+                    stored.removeIgnored(target);
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private Path bucketPath(int bucket) {
+        return directory.resolve(String.format("bucket-%02x.log", bucket));
+    }
+
+    private Path namesPath() {
+        return directory.resolve("names.txt");
+    }
+
+    private static int bucketOf(UUID player) {
+        return Math.floorMod(player.hashCode(), BUCKETS);
+    }
+
+    private static int bucketOf(String record) {
+        UUID owner = parseUuid(record.substring(UUID_OFFSET, UUID_OFFSET + UUID_LENGTH));
+        return owner == null ? 0 : bucketOf(owner);
+    }
+
+    private static UUID parseUuid(String value) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    private static final class LoadRequest {
+        private final UUID player;
+        private final CompletableFuture<StoredPlayer> future = new CompletableFuture<>();
+
+        private LoadRequest(UUID player) {
+            this.player = player;
+        }
+    }
+}
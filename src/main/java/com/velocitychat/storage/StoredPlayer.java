@@ -0,0 +1,105 @@
+package com.velocitychat.storage;
+
+import com.velocitychat.chat.ChatChannel;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Persisted chat state for one player, folded from that player's log records.
+ *
+ * <p>Channels are kept by the name they were saved under and resolved against the channels registered now, so a
+ * custom channel missing from this run's config.yml is skipped here but still written back by compaction.</p>
+ */
+public final class StoredPlayer {
+    private String speakChannel = ChatChannel.SERVER.name();
+    private final Set<String> listening = new LinkedHashSet<>();
+    private final Map<UUID, String> ignored = new LinkedHashMap<>();
+    private boolean hasPreferences;
+
+    /**
+     * The saved speak channel, or server chat if it names a channel that is not registered.
+     */
+    public ChatChannel getSpeakChannel() {
+        ChatChannel channel = parseChannel(speakChannel);
+        return channel != null ? channel : ChatChannel.SERVER;
+    }
+
+    /**
+     * The saved listening channels that are registered in this run.
+     */
+    public Set<ChatChannel> getListening() {
+        Set<ChatChannel> channels = new LinkedHashSet<>();
+        for (String name : listening) {
+            ChatChannel channel = parseChannel(name);
+            if (channel != null) {
+                channels.add(channel);
+            }
+        }
+        return channels;
+    }
+
+    /**
+     * The saved listening channels that are not registered in this run, by name.
+     */
+    public Set<String> getUnknownListening() {
+        Set<String> names = new LinkedHashSet<>();
+        for (String name : listening) {
+            if (parseChannel(name) == null) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    public Map<UUID, String> getIgnored() {
+        return Collections.unmodifiableMap(ignored);
+    }
+
+    /**
+     * Whether a preference record was ever written; players without one keep the configured defaults.
+     */
+    public boolean hasPreferences() {
+        return hasPreferences;
+    }
+
+    String getSpeakChannelName() {
+        return speakChannel;
+    }
+
+    Set<String> getListeningNames() {
+        return Collections.unmodifiableSet(listening);
+    }
+
+    void setPreferences(String speakChannel, Collection<String> listening) {
+        this.speakChannel = speakChannel;
+        this.listening.clear();
+        this.listening.addAll(listening);
+        this.hasPreferences = true;
+    }
+
+    void addIgnored(UUID target, String name) {
+        ignored.put(target, name);
+    }
+
+    void removeIgnored(UUID target) {
+        ignored.remove(target);
+    }
+
+    boolean isEmpty() {
+        return !hasPreferences && ignored.isEmpty();
+    }
+
+    private static ChatChannel parseChannel(String name) {
+        try {
+            return ChatChannel.valueOf(name);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.velocitychat.util;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import net.kyori.adventure.text.serializer.legacy.LegacyFormat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A message template compiled once into pre-built static components and placeholder slots.
+ *
+ * <p>Legacy {@code &} colour codes in the template are resolved at compile time. Slot values are inserted as
+ * plain text in the style active at their position, so they cannot introduce placeholders or colour codes.
+ * Placeholders that are not declared at compile time are kept as literal text.</p>
+ */
+public final class ChatTemplate {
+    private static final char COLOR_CHAR = '&';
+
+    private final Component[] statics;
+    private final int[] slots;
+    private final Style[] slotStyles;
+    private final Component constant;
+
+    private ChatTemplate(List<Component> statics, List<Integer> slots, List<Style> slotStyles) {
+        int size = statics.size();
+        this.statics = statics.toArray(new Component[0]);
+        this.slots = new int[size];
+        this.slotStyles = slotStyles.toArray(new Style[0]);
+        for (int i = 0; i < size; i++) {
+            this.slots[i] = slots.get(i);
+        }
+        this.constant = slots.stream().allMatch(slot -> slot < 0) ? joinStatics(this.statics) : null;
+    }
+
+    /**
+     * Compiles {@code source}; values passed to {@link #render(String...)} fill {@code placeholders} in order.
+     */
+    public static ChatTemplate compile(String source, String... placeholders) {
+        return compile(source, Map.of(), placeholders);
+    }
+
+    /**
+     * Compiles {@code source} after substituting fixed {@code bindings} (such as a channel prefix), which may
+     * themselves contain colour codes that carry over into the rest of the template.
+     */
+    public static ChatTemplate compile(String source, Map<String, String> bindings, String... placeholders) {
+        String text = source == null ? "" : source;
+        for (Map.Entry<String, String> binding : bindings.entrySet()) {
+            text = text.replace("{" + binding.getKey() + "}", binding.getValue());
+        }
+
+        List<Component> statics = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        List<Style> slotStyles = new ArrayList<>();
+        List<Component> runs = new ArrayList<>();
+        StringBuilder run = new StringBuilder();
+        Style style = Style.empty();
+
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c == COLOR_CHAR && i + 1 < length) {
+                LegacyFormat format = LegacyComponentSerializer.parseChar(text.charAt(i + 1));
+                if (format != null) {
+                    flushRun(runs, run, style);
+                    style = applyFormat(style, format);
+                    i++;
+                    continue;
+                }
+            }
+            if (c == '{') {
+                int end = text.indexOf('}', i + 1);
+                int slot = end < 0 ? -1 : indexOf(placeholders, text.substring(i + 1, end));
+                if (slot >= 0) {
+                    flushRun(runs, run, style);
+                    flushStatic(statics, slots, slotStyles, runs);
+                    statics.add(null);
+                    slots.add(slot);
+                    slotStyles.add(style);
+                    i = end;
+                    continue;
+                }
+            }
+            run.append(c);
+        }
+        flushRun(runs, run, style);
+        flushStatic(statics, slots, slotStyles, runs);
+        return new ChatTemplate(statics, slots, slotStyles);
+    }
+
+    /**
+     * Whether the template has no slots and always renders the same pre-built component.
+     */
+    public boolean isConstant() {
+        return constant != null;
+    }
+
+    public Component render(String... values) {
+        if (constant != null) {
+            return constant;
+        }
+        TextComponent.Builder builder = Component.text();
+        for (int i = 0; i < statics.length; i++) {
+            if (statics[i] != null) {
+                builder.append(statics[i]);
+            } else {
+                int slot = slots[i];
+                String value = slot < values.length && values[slot] != null ? values[slot] : "";
+                builder.append(Component.text(value, slotStyles[i]));
+            }
+        }
+        return builder.build();
+    }
+
+    private static void flushRun(List<Component> runs, StringBuilder run, Style style) {
+        if (run.length() == 0) {
+            return;
+        }
+        runs.add(Component.text(run.toString(), style));
+        run.setLength(0);
+    }
+
+    private static void flushStatic(List<Component> statics, List<Integer> slots, List<Style> slotStyles,
+                                    List<Component> runs) {
+        if (runs.isEmpty()) {
+            return;
+        }
+        statics.add(runs.size() == 1 ? runs.get(0) : joinStatics(runs.toArray(new Component[0])));
+        slots.add(-1);
+        slotStyles.add(null);
+        runs.clear();
+    }
+
+    private static Component joinStatics(Component[] parts) {
+        if (parts.length == 0) {
+            return Component.empty();
+        }
+        if (parts.length == 1) {
+            return parts[0];
+        }
+        TextComponent.Builder builder = Component.text();
+        for (Component part : parts) {
+            builder.append(part);
+        }
+        return builder.build();
+    }
+
+    private static Style applyFormat(Style style, LegacyFormat format) {
+        if (format.reset()) {
+            return Style.empty();
+        }
+        TextColor color = format.color();
+        if (color != null) {
+            return Style.style(color);
+        }
+        TextDecoration decoration = format.decoration();
+        if (decoration != null) {
+            return style.decoration(decoration, true);
+        }
+        return style;
+    }
+
+    private static int indexOf(String[] placeholders, String name) {
+        for (int i = 0; i < placeholders.length; i++) {
+            if (placeholders[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}